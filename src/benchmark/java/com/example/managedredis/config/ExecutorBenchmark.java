@@ -0,0 +1,76 @@
+package com.example.managedredis.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform pool vs virtual threads for a burst of blocking tasks, shaped like a batch of API calls.
+ * The virtual case needs a Java 21+ JVM; on older JVMs ExecutorFactory falls back to the platform pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutorBenchmark {
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    @Param({"1000"})
+    int tasks;
+
+    // Round trip of one simulated API call
+    @Param({"5"})
+    long blockMillis;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        RedisConfig config = new RedisConfig();
+        config.getThreading().setVirtualThreads(virtualThreads);
+        executor = new ExecutorFactory(config).newTaskExecutor("bench", 16);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int blockingBurst() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> futures = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            int task = i;
+            futures.add(executor.submit(() -> {
+                Thread.sleep(blockMillis);
+                return task;
+            }));
+        }
+        int sum = 0;
+        for (Future<Integer> future : futures) {
+            sum += future.get();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisSpec;
+import com.example.managedredis.model.ManagedRedisStatus;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Objects shaped like what the informers hand to the operator, for the benchmarks.
+ */
+public final class BenchmarkFixtures {
+    public static final String NAMESPACE = "bench";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * A ManagedRedis as the informer sees it after the operator has reconciled it once.
+     */
+    public static ManagedRedis managedRedis(String name, int replicas) {
+        ManagedRedis redis = newManagedRedis(NAMESPACE, name, replicas);
+        redis.getMetadata().setUid(UUID.nameUUIDFromBytes(name.getBytes()).toString());
+        redis.getMetadata().setGeneration(3L);
+        redis.getMetadata().setResourceVersion("12345");
+        redis.getMetadata().setCreationTimestamp("2024-01-01T00:00:00Z");
+
+        ManagedRedisStatus status = new ManagedRedisStatus();
+        status.setPhase("Running");
+        status.setObservedGeneration(3L);
+        status.setSpecHash("0123456789abcdef");
+        status.setNodes(new ArrayList<>());
+        redis.setStatus(status);
+        return redis;
+    }
+
+    /**
+     * A ManagedRedis as a client would create it.
+     */
+    public static ManagedRedis newManagedRedis(String namespace, String name, int replicas) {
+        ManagedRedisSpec.ResourceRequirements requests = new ManagedRedisSpec.ResourceRequirements();
+        requests.setCpu("250m");
+        requests.setMemory("256Mi");
+        ManagedRedisSpec.ResourceRequirements limits = new ManagedRedisSpec.ResourceRequirements();
+        limits.setCpu("1");
+        limits.setMemory("1Gi");
+        ManagedRedisSpec.Resources resources = new ManagedRedisSpec.Resources();
+        resources.setRequests(requests);
+        resources.setLimits(limits);
+
+        ManagedRedisSpec spec = new ManagedRedisSpec();
+        spec.setVersion("7.0");
+        spec.setReplicas(replicas);
+        spec.setResources(resources);
+
+        ManagedRedis redis = new ManagedRedis();
+        redis.setMetadata(new ObjectMetaBuilder()
+                .withName(name)
+                .withNamespace(namespace)
+                .addToLabels("team", "payments")
+                .build());
+        redis.setSpec(spec);
+        return redis;
+    }
+
+    public static StatefulSet statefulSet(ManagedRedis redis, int readyReplicas) {
+        return new StatefulSetBuilder(new RedisResourceRenderer(new RedisConfig()).renderStatefulSet(redis))
+                .withNewStatus()
+                    .withReplicas(redis.getSpec().getReplicas())
+                    .withReadyReplicas(readyReplicas)
+                .endStatus()
+                .build();
+    }
+
+    /**
+     * Ready pods with the condition list a kubelet reports (Ready is not the first condition).
+     */
+    public static List<Pod> pods(ManagedRedis redis) {
+        String name = redis.getMetadata().getName();
+        List<Pod> pods = new ArrayList<>();
+        for (int i = 0; i < redis.getSpec().getReplicas(); i++) {
+            pods.add(new PodBuilder()
+                    .withNewMetadata()
+                        .withName(name + "-" + i)
+                        .withNamespace(NAMESPACE)
+                        .addToLabels("app", name)
+                    .endMetadata()
+                    .withNewStatus()
+                        .withPodIP("10.0.0." + (i + 1))
+                        .addNewCondition().withType("Initialized").withStatus("True").endCondition()
+                        .addNewCondition().withType("ContainersReady").withStatus("True").endCondition()
+                        .addNewCondition().withType("PodScheduled").withStatus("True").endCondition()
+                        .addNewCondition().withType("Ready").withStatus("True").endCondition()
+                    .endStatus()
+                    .build());
+        }
+        return pods;
+    }
+
+    static Map<String, NodeProbe> probes(ManagedRedis redis) {
+        String name = redis.getMetadata().getName();
+        Map<String, NodeProbe> probes = new HashMap<>();
+        probes.put(name + "-0", NodeProbe.of(250_000,
+                "# Replication\r\nrole:master\r\nconnected_slaves:" + (redis.getSpec().getReplicas() - 1)
+                        + "\r\nmaster_repl_offset:1000000\r\n"));
+        for (int i = 1; i < redis.getSpec().getReplicas(); i++) {
+            probes.put(name + "-" + i, NodeProbe.of(300_000,
+                    "# Replication\r\nrole:slave\r\nmaster_link_status:up\r\nslave_repl_offset:999000\r\n"));
+        }
+        return probes;
+    }
+}
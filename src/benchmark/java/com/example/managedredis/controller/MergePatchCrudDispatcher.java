@@ -0,0 +1,51 @@
+package com.example.managedredis.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.crud.KubernetesCrudDispatcherException;
+import io.fabric8.kubernetes.client.utils.Serialization;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * CRUD dispatcher whose JSON merge patch replaces arrays as RFC 7386 (and the API server) does;
+ * the stock mock appends them, so every status patch of node lists would grow the list.
+ */
+class MergePatchCrudDispatcher extends KubernetesCrudDispatcher {
+
+    MergePatchCrudDispatcher() {
+        super(Collections.emptyList());
+    }
+
+    @Override
+    public JsonNode merge(JsonNode existing, String patch) throws KubernetesCrudDispatcherException {
+        try {
+            return mergePatch(existing.deepCopy(), Serialization.jsonMapper().readTree(patch));
+        } catch (IOException e) {
+            throw new KubernetesCrudDispatcherException(e.getMessage(), HttpURLConnection.HTTP_BAD_REQUEST);
+        }
+    }
+
+    static JsonNode mergePatch(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+        ObjectNode result = target != null && target.isObject()
+                ? (ObjectNode) target : Serialization.jsonMapper().createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), mergePatch(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.ExecutorFactory;
+import com.example.managedredis.config.MeteredOkHttpClientFactory;
+import com.example.managedredis.config.RedisConfig;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.managedredis.model.ManagedRedis;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockWebServer;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Drives RedisOperator against kubernetes-server-mock in CRUD mode with thousands of ManagedRedis
+ * resources, and reports convergence-time percentiles, operator API requests, heap and threads.
+ * <p>
+ * mvn -Pbenchmark test-compile exec:exec@load -Dload.args="--clusters=5000 --create-rate=500"
+ * <p>
+ * Options (--name=value): clusters, namespaces, replicas, create-rate, update-fraction, update-rate,
+ * delete-fraction, delete-rate, ready-delay (ms), workers, virtual-threads, status-window (ms), soak (seconds of update
+ * churn after the phases), timeout (seconds to wait for each phase to converge), log-level.
+ */
+public class OperatorLoadHarness {
+
+    private final Map<String, String> options;
+    private final KubernetesMockServer server = new KubernetesMockServer(new Context(), new MockWebServer(),
+            new HashMap<>(), new MergePatchCrudDispatcher(), false);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService loadExecutor = Executors.newFixedThreadPool(8);
+    // Start time and target replica count of every create/update awaiting convergence
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final List<Long> convergence = new CopyOnWriteArrayList<>();
+    private final AtomicLong loadFailures = new AtomicLong();
+
+    private KubernetesClient loadClient;
+    private KubernetesClient operatorClient;
+    private ReadinessSimulator simulator;
+    private SharedIndexInformer<ManagedRedis> informer;
+    private final List<AutoCloseable> operatorParts = new ArrayList<>();
+
+    OperatorLoadHarness(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+        // Per-request client and operator logging would dominate the measurement
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME))
+                .setLevel(Level.toLevel(options.getOrDefault("log-level", "WARN")));
+        OperatorLoadHarness harness = new OperatorLoadHarness(options);
+        try {
+            harness.run();
+        } finally {
+            harness.close();
+        }
+        System.exit(0);
+    }
+
+    void run() throws InterruptedException {
+        int clusters = intOption("clusters", 1000);
+        int namespaces = intOption("namespaces", 10);
+        int replicas = intOption("replicas", 3);
+        long timeout = intOption("timeout", 600);
+
+        server.init();
+        loadClient = server.createClient();
+        simulator = new ReadinessSimulator(loadClient, intOption("ready-delay", 500), 8);
+        simulator.start();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baselineThreads = threads.getThreadCount();
+        startOperator();
+        int operatorThreads = threads.getThreadCount() - baselineThreads;
+        System.out.printf("Operator started with %d threads%n", operatorThreads);
+
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < clusters; i++) {
+            keys.add("ns-" + (i % namespaces) + "/redis-" + i);
+        }
+
+        report("create", () -> drive(keys, doubleOption("create-rate", 200), key -> {
+            pending.put(key, new Pending(System.nanoTime(), replicas));
+            loadClient.resources(ManagedRedis.class).inNamespace(namespace(key))
+                    .resource(BenchmarkFixtures.newManagedRedis(namespace(key), name(key), replicas)).create();
+        }), timeout, baselineThreads);
+
+        List<String> updated = sample(keys, doubleOption("update-fraction", 0.2));
+        report("update", () -> drive(updated, doubleOption("update-rate", 200), key -> scale(key)),
+                timeout, baselineThreads);
+
+        List<String> deleted = sample(keys, doubleOption("delete-fraction", 0.2));
+        report("delete", () -> drive(deleted, doubleOption("delete-rate", 200), key -> {
+            pending.remove(key);
+            loadClient.resources(ManagedRedis.class).inNamespace(namespace(key)).withName(name(key)).delete();
+        }), timeout, baselineThreads);
+        keys.removeAll(deleted);
+
+        long soakSeconds = intOption("soak", 0);
+        if (soakSeconds > 0) {
+            report("soak", () -> {
+                long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(soakSeconds);
+                while (System.nanoTime() < end) {
+                    drive(sample(keys, 0.1), doubleOption("update-rate", 200), key -> scale(key));
+                }
+            }, timeout, baselineThreads);
+        }
+    }
+
+    private void startOperator() {
+        RedisConfig config = new RedisConfig();
+        config.getReconcile().setWorkers(intOption("workers", config.getReconcile().getWorkers()));
+        config.getThreading().setVirtualThreads(Boolean.parseBoolean(options.getOrDefault("virtual-threads", "false")));
+        // There are no Redis processes behind the simulated pods
+        config.getHealthCheck().setProbeEnabled(false);
+        config.getTuning().setRuntimeApply(false);
+        config.getHealthCheck().setInitialDelay(1);
+        config.getStatus().setWindow(intOption("status-window", (int) config.getStatus().getWindow()));
+
+        operatorClient = new KubernetesClientBuilder()
+                .withConfig(loadClient.getConfiguration())
+                .withHttpClientFactory(new MeteredOkHttpClientFactory(registry))
+                .build();
+        OperatorMetrics metrics = new OperatorMetrics(registry);
+        ExecutorFactory executorFactory = new ExecutorFactory(config);
+        ReconcileQueue queue = new ReconcileQueue(config, metrics, executorFactory);
+        informer = operatorClient.resources(ManagedRedis.class).inAnyNamespace().inform();
+        informer.addEventHandler(new ResourceEventHandler<ManagedRedis>() {
+            @Override
+            public void onAdd(ManagedRedis redis) {
+            }
+
+            @Override
+            public void onUpdate(ManagedRedis oldRedis, ManagedRedis newRedis) {
+                checkConverged(newRedis);
+            }
+
+            @Override
+            public void onDelete(ManagedRedis redis, boolean deletedFinalStateUnknown) {
+            }
+        });
+        ManagedResourceCache resourceCache = new ManagedResourceCache(operatorClient, queue);
+        RespClient respClient = new RespClient(config);
+        RedisNodeProber prober = new RedisNodeProber(respClient);
+        RedisHealthMonitor healthMonitor = new RedisHealthMonitor(config, queue, informer, resourceCache,
+                executorFactory, prober, metrics);
+        ShardCoordinator coordinator = new ShardCoordinator(operatorClient, config, executorFactory);
+        StatusAggregator statusAggregator = new StatusAggregator(config, new StatusWriter(operatorClient, metrics),
+                informer, queue, executorFactory, metrics);
+        RedisResourceRenderer renderer = new RedisResourceRenderer(config);
+        ResourceApplier resourceApplier = new ResourceApplier(operatorClient, metrics);
+        FailoverController failoverController = new FailoverController(config, informer, resourceCache, prober,
+                respClient, renderer, resourceApplier, queue, coordinator, executorFactory, metrics);
+        RedisOperator operator = new RedisOperator(config, queue, informer, resourceCache,
+                healthMonitor, statusAggregator, renderer, resourceApplier,
+                new RedisClusterManager(respClient, config), failoverController,
+                new RuntimeConfigApplier(config, respClient, queue),
+                new UpgradeOrchestrator(config, resourceCache, prober, failoverController, queue), coordinator,
+                executorFactory, event -> {
+                }, metrics);
+
+        coordinator.start();
+        healthMonitor.start();
+        failoverController.start();
+        operator.initialize();
+        // Closed in reverse order
+        operatorParts.add(respClient::close);
+        operatorParts.add(resourceCache::close);
+        operatorParts.add(informer::close);
+        operatorParts.add(statusAggregator::shutdown);
+        operatorParts.add(coordinator::stop);
+        operatorParts.add(healthMonitor::cleanup);
+        operatorParts.add(failoverController::stop);
+        operatorParts.add(operator::cleanup);
+    }
+
+    private void scale(String key) {
+        ManagedRedis redis = informer.getStore().getByKey(key);
+        if (redis == null) {
+            return;
+        }
+        // Alternate between growing and shrinking by one replica
+        int current = redis.getSpec().getReplicas();
+        int target = current > intOption("replicas", 3) ? current - 1 : current + 1;
+        pending.put(key, new Pending(System.nanoTime(), target));
+        loadClient.resources(ManagedRedis.class).inNamespace(namespace(key)).withName(name(key))
+                .edit(latest -> {
+                    latest.getSpec().setReplicas(target);
+                    return latest;
+                });
+    }
+
+    /**
+     * Converged once the status reports Running with one node per desired replica for the latest spec.
+     */
+    private void checkConverged(ManagedRedis redis) {
+        String key = ReconcileQueue.keyOf(redis);
+        Pending request = pending.get(key);
+        if (request == null || redis.getStatus() == null || redis.getSpec().getReplicas() != request.replicas) {
+            return;
+        }
+        boolean applied = redis.getMetadata().getGeneration() == null
+                || redis.getMetadata().getGeneration().equals(redis.getStatus().getObservedGeneration());
+        if (applied && "Running".equals(redis.getStatus().getPhase())
+                && redis.getStatus().getNodes().size() == request.replicas && pending.remove(key, request)) {
+            convergence.add(System.nanoTime() - request.startNanos);
+        }
+    }
+
+    /**
+     * Issues one call per key at the given rate (per second) from a small client pool.
+     */
+    private void drive(List<String> keys, double rate, Consumer<String> call) {
+        long start = System.nanoTime();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        for (int i = 0; i < keys.size(); i++) {
+            long wait = start + i * interval - System.nanoTime();
+            if (wait > 0) {
+                sleep(TimeUnit.NANOSECONDS.toMillis(wait));
+            }
+            String key = keys.get(i);
+            loadExecutor.execute(() -> {
+                try {
+                    call.accept(key);
+                } catch (RuntimeException e) {
+                    loadFailures.incrementAndGet();
+                    pending.remove(key);
+                }
+            });
+        }
+    }
+
+    private void report(String phase, Runnable load, long timeoutSeconds, int baselineThreads) {
+        convergence.clear();
+        Map<String, Double> requestsBefore = apiRequests();
+        long start = System.nanoTime();
+        load.run();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            sleep(100);
+        }
+        // Let the operator drain follow-up events before sampling requests and heap
+        sleep(2000);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        List<Long> latencies = new ArrayList<>(convergence);
+        Collections.sort(latencies);
+        System.out.printf("%n== %s: %d converged, %d not converged, %d load failures, %d simulator failures, %.1fs%n",
+                phase, latencies.size(), pending.size(), loadFailures.getAndSet(0), simulator.getFailures(), elapsed);
+        if (!latencies.isEmpty()) {
+            System.out.printf("convergence ms: p50=%d p90=%d p99=%d max=%d%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                    TimeUnit.NANOSECONDS.toMillis(latencies.get(latencies.size() - 1)));
+        }
+        pending.clear();
+
+        Map<String, Double> requests = apiRequests();
+        double total = 0;
+        System.out.println("operator API requests (verb resource: count):");
+        for (Map.Entry<String, Double> entry : requests.entrySet()) {
+            double count = entry.getValue() - requestsBefore.getOrDefault(entry.getKey(), 0.0);
+            if (count > 0) {
+                System.out.printf("  %-40s %8.0f%n", entry.getKey(), count);
+                total += count;
+            }
+        }
+        Timer reconciles = registry.find(OperatorMetrics.RECONCILE).timer();
+        System.out.printf("  %-40s %8.0f (%.1f/s)%n", "total", total, total / elapsed);
+        System.out.printf("reconciles: %d, queue depth: %.0f%n", reconciles == null ? 0 : reconciles.count(),
+                registry.get("managedredis.reconcile.queue.depth").gauge().value());
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.out.printf("heap used after GC: %d MiB, threads: %d (%d above baseline), peak %d%n",
+                memory.getHeapMemoryUsage().getUsed() >> 20, threads.getThreadCount(),
+                threads.getThreadCount() - baselineThreads, threads.getPeakThreadCount());
+    }
+
+    private Map<String, Double> apiRequests() {
+        Map<String, Double> requests = new TreeMap<>();
+        for (Meter meter : registry.find(MeteredOkHttpClientFactory.METRIC).meters()) {
+            String key = meter.getId().getTag("verb") + " " + meter.getId().getTag("resource");
+            requests.merge(key, (double) ((Timer) meter).count(), Double::sum);
+        }
+        return requests;
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(0, index)));
+    }
+
+    private static List<String> sample(List<String> keys, double fraction) {
+        List<String> sample = new ArrayList<>();
+        for (String key : keys) {
+            if (ThreadLocalRandom.current().nextDouble() < fraction) {
+                sample.add(key);
+            }
+        }
+        return sample;
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    private double doubleOption(String name, double defaultValue) {
+        return options.containsKey(name) ? Double.parseDouble(options.get(name)) : defaultValue;
+    }
+
+    private static String namespace(String key) {
+        return key.substring(0, key.indexOf('/'));
+    }
+
+    private static String name(String key) {
+        return key.substring(key.indexOf('/') + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void close() {
+        loadExecutor.shutdownNow();
+        Collections.reverse(operatorParts);
+        for (AutoCloseable part : operatorParts) {
+            try {
+                part.close();
+            } catch (Exception e) {
+                // Best effort shutdown
+            }
+        }
+        if (simulator != null) {
+            simulator.close();
+        }
+        if (operatorClient != null) {
+            operatorClient.close();
+        }
+        if (loadClient != null) {
+            loadClient.close();
+        }
+        server.destroy();
+    }
+
+    private static final class Pending {
+        private final long startNanos;
+        private final int replicas;
+
+        private Pending(long startNanos, int replicas) {
+            this.startNanos = startNanos;
+            this.replicas = replicas;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetStatus;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays the StatefulSet controller, kubelet and garbage collector against the mock API server:
+ * pods for a StatefulSet become ready readyDelay after it is applied, and the children of a deleted
+ * ManagedRedis are removed as owner-reference GC would.
+ */
+class ReadinessSimulator implements AutoCloseable {
+
+    private final KubernetesClient client;
+    private final long readyDelayMillis;
+    private final ScheduledExecutorService executor;
+    // Replica count last scheduled per StatefulSet, so repeated events don't pile up work
+    private final Map<String, Integer> scheduled = new ConcurrentHashMap<>();
+    private final AtomicLong failures = new AtomicLong();
+    private SharedIndexInformer<StatefulSet> statefulSetInformer;
+    private SharedIndexInformer<ManagedRedis> managedRedisInformer;
+
+    ReadinessSimulator(KubernetesClient client, long readyDelayMillis, int threads) {
+        this.client = client;
+        this.readyDelayMillis = readyDelayMillis;
+        this.executor = Executors.newScheduledThreadPool(threads);
+    }
+
+    void start() {
+        statefulSetInformer = client.apps().statefulSets()
+                .inAnyNamespace()
+                .withLabel(RedisConfig.MANAGED_BY_LABEL, RedisConfig.MANAGED_BY)
+                .inform(new ResourceEventHandler<StatefulSet>() {
+                    @Override
+                    public void onAdd(StatefulSet statefulSet) {
+                        schedule(statefulSet);
+                    }
+
+                    @Override
+                    public void onUpdate(StatefulSet oldStatefulSet, StatefulSet newStatefulSet) {
+                        schedule(newStatefulSet);
+                    }
+
+                    @Override
+                    public void onDelete(StatefulSet statefulSet, boolean deletedFinalStateUnknown) {
+                        scheduled.remove(Cache.metaNamespaceKeyFunc(statefulSet));
+                    }
+                });
+        managedRedisInformer = client.resources(ManagedRedis.class)
+                .inAnyNamespace()
+                .inform(new ResourceEventHandler<ManagedRedis>() {
+                    @Override
+                    public void onAdd(ManagedRedis redis) {
+                    }
+
+                    @Override
+                    public void onUpdate(ManagedRedis oldRedis, ManagedRedis newRedis) {
+                    }
+
+                    @Override
+                    public void onDelete(ManagedRedis redis, boolean deletedFinalStateUnknown) {
+                        executor.execute(() -> collectGarbage(redis.getMetadata().getNamespace(),
+                                redis.getMetadata().getName()));
+                    }
+                });
+    }
+
+    long getFailures() {
+        return failures.get();
+    }
+
+    private void schedule(StatefulSet statefulSet) {
+        Integer replicas = statefulSet.getSpec().getReplicas();
+        Integer ready = statefulSet.getStatus() == null ? null : statefulSet.getStatus().getReadyReplicas();
+        String key = Cache.metaNamespaceKeyFunc(statefulSet);
+        if (Objects.equals(replicas, ready) || Objects.equals(scheduled.put(key, replicas), replicas)) {
+            return;
+        }
+        executor.schedule(() -> rollOut(statefulSet.getMetadata().getNamespace(),
+                statefulSet.getMetadata().getName(), replicas), readyDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void rollOut(String namespace, String name, int replicas) {
+        try {
+            for (int i = 0; i < replicas; i++) {
+                client.pods().inNamespace(namespace).resource(readyPod(namespace, name, i)).createOrReplace();
+            }
+            client.pods().inNamespace(namespace)
+                    .withLabel(RedisConfig.APP_LABEL, name)
+                    .list().getItems().stream()
+                    .filter(pod -> ordinal(pod) >= replicas)
+                    .forEach(pod -> client.pods().inNamespace(namespace).resource(pod).delete());
+
+            StatefulSet statefulSet = client.apps().statefulSets().inNamespace(namespace).withName(name).get();
+            if (statefulSet != null) {
+                if (statefulSet.getStatus() == null) {
+                    statefulSet.setStatus(new StatefulSetStatus());
+                }
+                statefulSet.getStatus().setReplicas(replicas);
+                statefulSet.getStatus().setReadyReplicas(replicas);
+                client.apps().statefulSets().inNamespace(namespace).resource(statefulSet).replaceStatus();
+            }
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            scheduled.remove(Cache.namespaceKeyFunc(namespace, name));
+        }
+    }
+
+    private void collectGarbage(String namespace, String name) {
+        try {
+            client.apps().statefulSets().inNamespace(namespace).withName(name).delete();
+            client.pods().inNamespace(namespace).withLabel(RedisConfig.APP_LABEL, name).delete();
+            for (String service : new String[]{name, name + "-primary", name + "-reader"}) {
+                client.services().inNamespace(namespace).withName(service).delete();
+            }
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+    }
+
+    private static Pod readyPod(String namespace, String name, int ordinal) {
+        return new PodBuilder()
+                .withNewMetadata()
+                    .withName(name + "-" + ordinal)
+                    .withNamespace(namespace)
+                    .addToLabels(RedisConfig.APP_LABEL, name)
+                    .addToLabels(RedisConfig.MANAGED_BY_LABEL, RedisConfig.MANAGED_BY)
+                .endMetadata()
+                .withNewStatus()
+                    .withPhase("Running")
+                    .withPodIP("10.0." + (ordinal / 250) + "." + (ordinal % 250 + 1))
+                    .addNewCondition().withType("Ready").withStatus("True").endCondition()
+                .endStatus()
+                .build();
+    }
+
+    private static int ordinal(Pod pod) {
+        String name = pod.getMetadata().getName();
+        return Integer.parseInt(name.substring(name.lastIndexOf('-') + 1));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        if (statefulSetInformer != null) {
+            statefulSetInformer.close();
+        }
+        if (managedRedisInformer != null) {
+            managedRedisInformer.close();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desired-state rendering, run for every ManagedRedis event that gets past the spec-hash check.
+ * Run with -prof gc to see allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+
+    @Param({"1", "3", "5"})
+    int replicas;
+
+    private final RedisResourceRenderer renderer = new RedisResourceRenderer(new RedisConfig());
+    private ManagedRedis redis;
+
+    @Setup
+    public void setup() {
+        redis = BenchmarkFixtures.managedRedis("cache", replicas);
+    }
+
+    @Benchmark
+    public StatefulSet renderStatefulSet() {
+        return renderer.renderStatefulSet(redis);
+    }
+
+    @Benchmark
+    public List<Service> renderServices() {
+        return renderer.renderServices(redis);
+    }
+
+    @Benchmark
+    public String specHash() {
+        return renderer.specHash(redis);
+    }
+}
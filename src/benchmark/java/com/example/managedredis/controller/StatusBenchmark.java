@@ -0,0 +1,74 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisStatus;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Status computation from cached StatefulSet/Pod state, run on every status refresh and health sweep.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StatusBenchmark {
+
+    @Param({"1", "3", "5"})
+    int replicas;
+
+    private ManagedRedis redis;
+    private StatefulSet statefulSet;
+    private List<Pod> pods;
+    private Map<String, NodeProbe> probes;
+
+    @Setup
+    public void setup() {
+        redis = BenchmarkFixtures.managedRedis("cache", replicas);
+        statefulSet = BenchmarkFixtures.statefulSet(redis, replicas);
+        pods = BenchmarkFixtures.pods(redis);
+        probes = BenchmarkFixtures.probes(redis);
+    }
+
+    @Benchmark
+    public void isPodReady(Blackhole blackhole) {
+        for (Pod pod : pods) {
+            blackhole.consume(StatusCalculator.isPodReady(pod));
+        }
+    }
+
+    @Benchmark
+    public ManagedRedisStatus calculate() {
+        return StatusCalculator.calculate(redis, statefulSet, pods, "Running",
+                Collections.emptyMap(), Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public ManagedRedisStatus calculateWithProbes() {
+        return StatusCalculator.calculate(redis, statefulSet, pods, "Running", probes, 1048576);
+    }
+
+    @Benchmark
+    public Map<String, Object> statusDiff() {
+        return StatusWriter.diff(redis.getStatus(), calculateWithProbes());
+    }
+}
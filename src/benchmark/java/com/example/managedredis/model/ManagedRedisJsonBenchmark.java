@@ -0,0 +1,64 @@
+package com.example.managedredis.model;
+
+import com.example.managedredis.controller.BenchmarkFixtures;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ManagedRedis (de)serialization with the fabric8 mapper, as used by the informers and the REST API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ManagedRedisJsonBenchmark {
+
+    @Param({"1", "3", "5"})
+    int replicas;
+
+    private final ObjectMapper mapper = Serialization.jsonMapper();
+    private ManagedRedis redis;
+    private String json;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        redis = BenchmarkFixtures.managedRedis("cache", replicas);
+        for (int i = 0; i < replicas; i++) {
+            ManagedRedisStatus.Node node = new ManagedRedisStatus.Node();
+            node.setName("cache-" + i);
+            node.setRole(i == 0 ? "primary" : "replica");
+            node.setStatus("Ready");
+            node.setEndpoint("cache-" + i + ".bench.pod:6379");
+            node.setLatencyMillis(0.25);
+            node.setReplicationOffset(1000000L);
+            redis.getStatus().getNodes().add(node);
+        }
+        json = mapper.writeValueAsString(redis);
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return mapper.writeValueAsString(redis);
+    }
+
+    @Benchmark
+    public ManagedRedis deserialize() throws JsonProcessingException {
+        return mapper.readValue(json, ManagedRedis.class);
+    }
+}
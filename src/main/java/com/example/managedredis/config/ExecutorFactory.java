@@ -0,0 +1,103 @@
+package com.example.managedredis.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the operator's executors on platform threads or, when redis.threading.virtual-threads is set
+ * and the JVM supports it (JDK 21+), on virtual threads. The project still compiles for Java 11,
+ * so the virtual-thread API is looked up reflectively.
+ */
+@Component
+public class ExecutorFactory {
+    private static final Logger log = LoggerFactory.getLogger(ExecutorFactory.class);
+
+    private final boolean virtualThreads;
+    private final int virtualWorkers;
+
+    public ExecutorFactory(RedisConfig redisConfig) {
+        boolean requested = redisConfig.getThreading().isVirtualThreads();
+        this.virtualThreads = requested && isVirtualThreadSupported();
+        this.virtualWorkers = redisConfig.getThreading().getVirtualWorkers();
+        if (requested && !virtualThreads) {
+            log.warn("Virtual threads requested but not supported by Java {}, using platform threads",
+                    System.getProperty("java.version"));
+        }
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Number of worker loops to start: on virtual threads a blocked worker costs almost nothing,
+     * so the configured virtual worker count replaces the platform pool size when it is larger.
+     */
+    public int workerCount(int platformThreads) {
+        return virtualThreads ? Math.max(platformThreads, virtualWorkers) : platformThreads;
+    }
+
+    /**
+     * Pool for long-running worker loops; one thread per worker either way.
+     */
+    public ExecutorService newWorkerPool(String name, int threads) {
+        if (virtualThreads) {
+            return newThreadPerTaskExecutor(virtualThreadFactory(name));
+        }
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    public ScheduledExecutorService newScheduledPool(String name, int threads) {
+        if (virtualThreads) {
+            return Executors.newScheduledThreadPool(threads, virtualThreadFactory(name));
+        }
+        return Executors.newScheduledThreadPool(threads);
+    }
+
+    /**
+     * Executor for short blocking tasks: a new virtual thread per task, or a bounded platform pool.
+     */
+    public ExecutorService newTaskExecutor(String name, int platformThreads) {
+        if (virtualThreads) {
+            return newThreadPerTaskExecutor(virtualThreadFactory(name));
+        }
+        return Executors.newFixedThreadPool(platformThreads);
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            Method factory = builderType.getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available", e);
+        }
+    }
+
+    static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available", e);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.managedredis.config;
 
+import com.example.managedredis.model.ManagedRedis;
 import io.fabric8.kubernetes.client.Config;
 import io.fabric8.kubernetes.client.ConfigBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,7 +14,7 @@ import org.springframework.context.annotation.Configuration;
 public class KubernetesConfig {
 
     @Bean
-    public KubernetesClient kubernetesClient() {
+    public KubernetesClient kubernetesClient(MeterRegistry meterRegistry) {
         try {
             // Docker Desktop의 Kubernetes API 서버로 직접 연결
             Config config = new ConfigBuilder()
@@ -21,10 +24,19 @@ public class KubernetesConfig {
 
             return new KubernetesClientBuilder()
                     .withConfig(config)
+                    .withHttpClientFactory(new MeteredOkHttpClientFactory(meterRegistry))
                     .build();
         } catch (Exception e) {
             // 로컬 kubeconfig 사용 시도
-            return new KubernetesClientBuilder().build();
+            return new KubernetesClientBuilder()
+                    .withHttpClientFactory(new MeteredOkHttpClientFactory(meterRegistry))
+                    .build();
         }
     }
-} 
\ No newline at end of file
+
+    // ManagedRedis 캐시 (RedisOperator와 조회 API가 공유, 네임스페이스 인덱스 포함)
+    @Bean(destroyMethod = "close")
+    public SharedIndexInformer<ManagedRedis> managedRedisInformer(KubernetesClient kubernetesClient) {
+        return kubernetesClient.resources(ManagedRedis.class).inAnyNamespace().inform();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.managedredis.config;
+
+import io.fabric8.kubernetes.client.okhttp.OkHttpClientFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OkHttp client factory that records every Kubernetes API call as
+ * managedredis.kubernetes.client.requests{verb, resource, code}.
+ */
+public class MeteredOkHttpClientFactory extends OkHttpClientFactory {
+    public static final String METRIC = "managedredis.kubernetes.client.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    public MeteredOkHttpClientFactory(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void additionalConfig(OkHttpClient.Builder builder) {
+        builder.addInterceptor(chain -> {
+            Request request = chain.request();
+            long start = System.nanoTime();
+            String code = "IO_ERROR";
+            try {
+                Response response = chain.proceed(request);
+                code = String.valueOf(response.code());
+                return response;
+            } finally {
+                Timer.builder(METRIC)
+                        .tag("verb", verb(request))
+                        .tag("resource", resource(request.url().pathSegments()))
+                        .tag("code", code)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    static String verb(Request request) {
+        String method = request.method();
+        switch (method) {
+            case "GET":
+                if ("true".equals(request.url().queryParameter("watch"))) {
+                    return "watch";
+                }
+                return hasName(request.url().pathSegments()) ? "get" : "list";
+            case "POST":
+                return "create";
+            case "PUT":
+                return "update";
+            default:
+                return method.toLowerCase();
+        }
+    }
+
+    /**
+     * Resource (with subresource, e.g. "managedredis/status") from /api/v1/... or /apis/group/version/... paths.
+     */
+    static String resource(List<String> segments) {
+        int index = resourceIndex(segments);
+        if (index < 0 || index >= segments.size()) {
+            return "other";
+        }
+        String resource = segments.get(index);
+        if (index + 2 < segments.size()) {
+            resource += "/" + segments.get(index + 2);
+        }
+        return resource;
+    }
+
+    private static boolean hasName(List<String> segments) {
+        int index = resourceIndex(segments);
+        return index >= 0 && index + 1 < segments.size() && !segments.get(index + 1).isEmpty();
+    }
+
+    private static int resourceIndex(List<String> segments) {
+        int index;
+        if (!segments.isEmpty() && "api".equals(segments.get(0))) {
+            index = 2;
+        } else if (!segments.isEmpty() && "apis".equals(segments.get(0))) {
+            index = 3;
+        } else {
+            return -1;
+        }
+        // Namespaced path, unless the namespace itself is the resource being requested
+        if (index + 2 < segments.size() && "namespaces".equals(segments.get(index))) {
+            index += 2;
+        }
+        return index;
+    }
+}
@@ -11,6 +11,8 @@ public class RedisConfig {
     public static final String ROLE_LABEL = "role";
     public static final String MANAGED_BY_LABEL = "managed-by";
     public static final String REDIS_PORT = "6379";
+    public static final String CLUSTER_BUS_PORT = "16379";
+    public static final String SHARD_LABEL = "shard";
     
     public static final String PRIMARY_ROLE = "Primary";
     public static final String REPLICA_ROLE = "Replica";
@@ -23,6 +25,10 @@ public class RedisConfig {
         private long initialDelay = 30; // seconds
         private long period = 30; // seconds
         private int threadPoolSize = 1;
+        private int buckets = 10;
+        private boolean probeEnabled = true; // PING / INFO replication against each node
+        private long maxReplicationLag = 1048576; // bytes behind the primary before a replica is Lagging
+        private long statusRefresh = 300; // seconds between status refreshes when only probe metrics changed
 
         public long getInitialDelay() {
             return initialDelay;
@@ -47,6 +53,561 @@ public class RedisConfig {
         public void setThreadPoolSize(int threadPoolSize) {
             this.threadPoolSize = threadPoolSize;
         }
+
+        public int getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(int buckets) {
+            this.buckets = buckets;
+        }
+
+        public boolean isProbeEnabled() {
+            return probeEnabled;
+        }
+
+        public void setProbeEnabled(boolean probeEnabled) {
+            this.probeEnabled = probeEnabled;
+        }
+
+        public long getMaxReplicationLag() {
+            return maxReplicationLag;
+        }
+
+        public void setMaxReplicationLag(long maxReplicationLag) {
+            this.maxReplicationLag = maxReplicationLag;
+        }
+
+        public long getStatusRefresh() {
+            return statusRefresh;
+        }
+
+        public void setStatusRefresh(long statusRefresh) {
+            this.statusRefresh = statusRefresh;
+        }
+    }
+
+    // Reconcile work queue configuration
+    private Reconcile reconcile = new Reconcile();
+
+    public static class Reconcile {
+        private int workers = 4;
+        private long initialBackoff = 500; // milliseconds
+        private long maxBackoff = 300000; // milliseconds
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public long getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(long initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public long getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(long maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+    }
+
+    // Multi-replica coordination (leader election / sharding)
+    private Coordination coordination = new Coordination();
+
+    public static class Coordination {
+        public enum Mode { NONE, LEADER, SHARDED }
+
+        public enum ShardBy { NAMESPACE, RESOURCE }
+
+        private Mode mode = Mode.NONE;
+        private String leaseNamespace = "default";
+        private String leaseName = "managedredis-operator";
+        private String identity; // defaults to HOSTNAME
+        private long leaseDuration = 15; // seconds
+        private long renewDeadline = 10; // seconds
+        private long retryPeriod = 2; // seconds
+        private ShardBy shardBy = ShardBy.NAMESPACE;
+        private int virtualNodes = 100;
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public String getLeaseNamespace() {
+            return leaseNamespace;
+        }
+
+        public void setLeaseNamespace(String leaseNamespace) {
+            this.leaseNamespace = leaseNamespace;
+        }
+
+        public String getLeaseName() {
+            return leaseName;
+        }
+
+        public void setLeaseName(String leaseName) {
+            this.leaseName = leaseName;
+        }
+
+        public String getIdentity() {
+            return identity;
+        }
+
+        public void setIdentity(String identity) {
+            this.identity = identity;
+        }
+
+        public long getLeaseDuration() {
+            return leaseDuration;
+        }
+
+        public void setLeaseDuration(long leaseDuration) {
+            this.leaseDuration = leaseDuration;
+        }
+
+        public long getRenewDeadline() {
+            return renewDeadline;
+        }
+
+        public void setRenewDeadline(long renewDeadline) {
+            this.renewDeadline = renewDeadline;
+        }
+
+        public long getRetryPeriod() {
+            return retryPeriod;
+        }
+
+        public void setRetryPeriod(long retryPeriod) {
+            this.retryPeriod = retryPeriod;
+        }
+
+        public ShardBy getShardBy() {
+            return shardBy;
+        }
+
+        public void setShardBy(ShardBy shardBy) {
+            this.shardBy = shardBy;
+        }
+
+        public int getVirtualNodes() {
+            return virtualNodes;
+        }
+
+        public void setVirtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+        }
+    }
+
+    // Thread model for operator executors and request handling
+    private Threading threading = new Threading();
+
+    public static class Threading {
+        private boolean virtualThreads = false; // requires Java 21+, falls back to platform threads otherwise
+        private int virtualWorkers = 64;
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+        public int getVirtualWorkers() {
+            return virtualWorkers;
+        }
+
+        public void setVirtualWorkers(int virtualWorkers) {
+            this.virtualWorkers = virtualWorkers;
+        }
+    }
+
+    // Status write coalescing
+    private Status status = new Status();
+
+    public static class Status {
+        private long window = 500; // milliseconds a status change waits for later changes before one write
+        private int flushThreads = 2;
+
+        public long getWindow() {
+            return window;
+        }
+
+        public void setWindow(long window) {
+            this.window = window;
+        }
+
+        public int getFlushThreads() {
+            return flushThreads;
+        }
+
+        public void setFlushThreads(int flushThreads) {
+            this.flushThreads = flushThreads;
+        }
+    }
+
+    // Watch (SSE) endpoint configuration
+    private Watch watch = new Watch();
+
+    public static class Watch {
+        private int bufferSize = 256; // pending events per subscriber before it is evicted
+        private int historySize = 1024; // events kept for resuming from a resourceVersion
+        private long timeout = 1800; // seconds
+        private long heartbeat = 15; // seconds
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+
+        public long getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+
+        public long getHeartbeat() {
+            return heartbeat;
+        }
+
+        public void setHeartbeat(long heartbeat) {
+            this.heartbeat = heartbeat;
+        }
+    }
+
+    // Batch create/delete API configuration
+    private Batch batch = new Batch();
+
+    public static class Batch {
+        private int concurrency = 16;
+        private int maxItems = 1000;
+        private long idempotencyTtl = 3600; // seconds
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+
+        public long getIdempotencyTtl() {
+            return idempotencyTtl;
+        }
+
+        public void setIdempotencyTtl(long idempotencyTtl) {
+            this.idempotencyTtl = idempotencyTtl;
+        }
+    }
+
+    // Long-running operation tracking for asynchronous requests
+    private Operations operations = new Operations();
+
+    public static class Operations {
+        private long ttl = 3600; // seconds an operation is kept
+        private long maxWait = 60; // seconds a wait request may block
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(long ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(long maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+
+    // Non-blocking RESP client used to talk to Redis nodes
+    private Resp resp = new Resp();
+
+    public static class Resp {
+        private int ioThreads = 1;
+        private int connectionsPerNode = 1;
+        private long timeout = 2000; // milliseconds
+        private long idleTimeout = 120000; // milliseconds
+
+        public int getIoThreads() {
+            return ioThreads;
+        }
+
+        public void setIoThreads(int ioThreads) {
+            this.ioThreads = ioThreads;
+        }
+
+        public int getConnectionsPerNode() {
+            return connectionsPerNode;
+        }
+
+        public void setConnectionsPerNode(int connectionsPerNode) {
+            this.connectionsPerNode = connectionsPerNode;
+        }
+
+        public long getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+
+        public long getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(long idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+    }
+
+    // Defaults for the redis.conf rendered from spec.configuration
+    private Tuning tuning = new Tuning();
+
+    public static class Tuning {
+        private int maxmemoryHeadroom = 25; // percent of the memory limit left outside maxmemory
+        private String maxmemoryPolicy = "allkeys-lru";
+        private String rdbSchedule = "3600 1 300 100 60 10000";
+        private String appendfsync = "everysec";
+        private boolean runtimeApply = true; // CONFIG SET changed runtime directives on running nodes
+
+        public int getMaxmemoryHeadroom() {
+            return maxmemoryHeadroom;
+        }
+
+        public void setMaxmemoryHeadroom(int maxmemoryHeadroom) {
+            this.maxmemoryHeadroom = maxmemoryHeadroom;
+        }
+
+        public String getMaxmemoryPolicy() {
+            return maxmemoryPolicy;
+        }
+
+        public void setMaxmemoryPolicy(String maxmemoryPolicy) {
+            this.maxmemoryPolicy = maxmemoryPolicy;
+        }
+
+        public String getRdbSchedule() {
+            return rdbSchedule;
+        }
+
+        public void setRdbSchedule(String rdbSchedule) {
+            this.rdbSchedule = rdbSchedule;
+        }
+
+        public String getAppendfsync() {
+            return appendfsync;
+        }
+
+        public void setAppendfsync(String appendfsync) {
+            this.appendfsync = appendfsync;
+        }
+
+        public boolean isRuntimeApply() {
+            return runtimeApply;
+        }
+
+        public void setRuntimeApply(boolean runtimeApply) {
+            this.runtimeApply = runtimeApply;
+        }
+    }
+
+    // Read replica autoscaling for ManagedRedis with spec.autoscaling
+    private Autoscaling autoscaling = new Autoscaling();
+
+    public static class Autoscaling {
+        private boolean enabled = true;
+        private long interval = 15000; // milliseconds between evaluations
+        private double tolerance = 0.1; // load within this fraction of the target does not scale
+        private int scaleUpCooldown = 60; // default seconds after a scale before scaling up again
+        private int scaleDownCooldown = 300; // default seconds after a scale before scaling down again
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getInterval() {
+            return interval;
+        }
+
+        public void setInterval(long interval) {
+            this.interval = interval;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public void setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+        }
+
+        public int getScaleUpCooldown() {
+            return scaleUpCooldown;
+        }
+
+        public void setScaleUpCooldown(int scaleUpCooldown) {
+            this.scaleUpCooldown = scaleUpCooldown;
+        }
+
+        public int getScaleDownCooldown() {
+            return scaleDownCooldown;
+        }
+
+        public void setScaleDownCooldown(int scaleDownCooldown) {
+            this.scaleDownCooldown = scaleDownCooldown;
+        }
+    }
+
+    // Automatic primary failover for Primary-Replica clusters (spec.size 0)
+    private Failover failover = new Failover();
+
+    public static class Failover {
+        private boolean enabled = true;
+        private long checkInterval = 1000; // milliseconds between primary checks
+        private int failureThreshold = 3; // consecutive failed checks before a replica is promoted
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getCheckInterval() {
+            return checkInterval;
+        }
+
+        public void setCheckInterval(long checkInterval) {
+            this.checkInterval = checkInterval;
+        }
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+    }
+
+    // Replica-first rolling upgrades of Primary-Replica clusters (spec.size 0)
+    private Upgrade upgrade = new Upgrade();
+
+    public static class Upgrade {
+        private long checkInterval = 5000; // milliseconds before a rollout waiting on a pod is checked again
+        private long switchoverTimeout = 5000; // milliseconds writes may stay paused while the new primary catches up
+        private long maxReplicationLag = 65536; // bytes an upgraded replica may trail the primary before the next pod rolls
+
+        public long getCheckInterval() {
+            return checkInterval;
+        }
+
+        public void setCheckInterval(long checkInterval) {
+            this.checkInterval = checkInterval;
+        }
+
+        public long getSwitchoverTimeout() {
+            return switchoverTimeout;
+        }
+
+        public void setSwitchoverTimeout(long switchoverTimeout) {
+            this.switchoverTimeout = switchoverTimeout;
+        }
+
+        public long getMaxReplicationLag() {
+            return maxReplicationLag;
+        }
+
+        public void setMaxReplicationLag(long maxReplicationLag) {
+            this.maxReplicationLag = maxReplicationLag;
+        }
+    }
+
+    // Redis Cluster (spec.size > 0) topology management
+    private Cluster cluster = new Cluster();
+
+    public static class Cluster {
+        private int slotsPerPass = 256; // slots migrated per reconcile before the worker is released
+        private int migrateBatch = 100; // keys per MIGRATE
+        private long migrateTimeout = 1000; // milliseconds, kept below redis.resp.timeout
+        private long requeueDelay = 2000; // milliseconds before checking a forming or rebalancing cluster again
+
+        public int getSlotsPerPass() {
+            return slotsPerPass;
+        }
+
+        public void setSlotsPerPass(int slotsPerPass) {
+            this.slotsPerPass = slotsPerPass;
+        }
+
+        public int getMigrateBatch() {
+            return migrateBatch;
+        }
+
+        public void setMigrateBatch(int migrateBatch) {
+            this.migrateBatch = migrateBatch;
+        }
+
+        public long getMigrateTimeout() {
+            return migrateTimeout;
+        }
+
+        public void setMigrateTimeout(long migrateTimeout) {
+            this.migrateTimeout = migrateTimeout;
+        }
+
+        public long getRequeueDelay() {
+            return requeueDelay;
+        }
+
+        public void setRequeueDelay(long requeueDelay) {
+            this.requeueDelay = requeueDelay;
+        }
     }
 
     public HealthCheck getHealthCheck() {
@@ -56,4 +617,108 @@ public class RedisConfig {
     public void setHealthCheck(HealthCheck healthCheck) {
         this.healthCheck = healthCheck;
     }
-} 
\ No newline at end of file
+
+    public Reconcile getReconcile() {
+        return reconcile;
+    }
+
+    public void setReconcile(Reconcile reconcile) {
+        this.reconcile = reconcile;
+    }
+
+    public Coordination getCoordination() {
+        return coordination;
+    }
+
+    public void setCoordination(Coordination coordination) {
+        this.coordination = coordination;
+    }
+
+    public Threading getThreading() {
+        return threading;
+    }
+
+    public void setThreading(Threading threading) {
+        this.threading = threading;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Watch getWatch() {
+        return watch;
+    }
+
+    public void setWatch(Watch watch) {
+        this.watch = watch;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    public Operations getOperations() {
+        return operations;
+    }
+
+    public void setOperations(Operations operations) {
+        this.operations = operations;
+    }
+
+    public Resp getResp() {
+        return resp;
+    }
+
+    public void setResp(Resp resp) {
+        this.resp = resp;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public void setCluster(Cluster cluster) {
+        this.cluster = cluster;
+    }
+
+    public Failover getFailover() {
+        return failover;
+    }
+
+    public void setFailover(Failover failover) {
+        this.failover = failover;
+    }
+
+    public Upgrade getUpgrade() {
+        return upgrade;
+    }
+
+    public void setUpgrade(Upgrade upgrade) {
+        this.upgrade = upgrade;
+    }
+
+    public Autoscaling getAutoscaling() {
+        return autoscaling;
+    }
+
+    public void setAutoscaling(Autoscaling autoscaling) {
+        this.autoscaling = autoscaling;
+    }
+
+    public Tuning getTuning() {
+        return tuning;
+    }
+
+    public void setTuning(Tuning tuning) {
+        this.tuning = tuning;
+    }
+}
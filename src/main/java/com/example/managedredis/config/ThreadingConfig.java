@@ -0,0 +1,19 @@
+package com.example.managedredis.config;
+
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ThreadingConfig {
+
+    // 가상 스레드 모드에서는 Tomcat 요청도 요청당 가상 스레드로 처리
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorFactory executorFactory) {
+        return protocolHandler -> {
+            if (executorFactory.isVirtualThreads()) {
+                protocolHandler.setExecutor(executorFactory.newTaskExecutor("http", 1));
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.managedredis.controller;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+
+import java.util.List;
+
+/**
+ * One rendering of a ManagedRedis: its children, its redis.conf and the hash recorded in status.specHash.
+ */
+public final class DesiredState {
+    private final String inputs;
+    private final List<StatefulSet> statefulSets;
+    private final List<Service> services;
+    private final List<ConfigMap> configMaps;
+    private final RedisConf conf;
+    private final String specHash;
+
+    DesiredState(String inputs, List<StatefulSet> statefulSets, List<Service> services, List<ConfigMap> configMaps,
+                 RedisConf conf, String specHash) {
+        this.inputs = inputs;
+        this.statefulSets = List.copyOf(statefulSets);
+        this.services = List.copyOf(services);
+        this.configMaps = List.copyOf(configMaps);
+        this.conf = conf;
+        this.specHash = specHash;
+    }
+
+    String getInputs() {
+        return inputs;
+    }
+
+    public List<StatefulSet> getStatefulSets() {
+        return statefulSets;
+    }
+
+    public List<Service> getServices() {
+        return services;
+    }
+
+    public List<ConfigMap> getConfigMaps() {
+        return configMaps;
+    }
+
+    RedisConf getConf() {
+        return conf;
+    }
+
+    public String getSpecHash() {
+        return specHash;
+    }
+}
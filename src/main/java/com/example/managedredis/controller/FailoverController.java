@@ -0,0 +1,504 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.ExecutorFactory;
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sentinel-style failover for Primary-Replica clusters (spec.size 0). The current primary of every
+ * registered cluster is checked every check-interval with a pipelined PING / INFO replication; after
+ * failure-threshold consecutive failures the reachable replica with the highest replication offset is
+ * promoted (REPLICAOF NO ONE), the -primary Service is retargeted to it and the other replicas are
+ * repointed. Pods that come back later as a stray primary or following the old one are repointed on
+ * the next reconcile. The promotion is kept in memory until the cached status.currentPrimary shows it.
+ * Only clusters this instance owns are checked or failed over.
+ * A planned switchover (used by UpgradeOrchestrator) pauses writes on the primary instead, waits for the
+ * chosen replica to catch up completely and then swaps roles, so no acknowledged write is lost.
+ */
+@Component
+public class FailoverController {
+    private static final Logger log = LoggerFactory.getLogger(FailoverController.class);
+
+    private final RedisConfig.Failover config;
+    private final long switchoverTimeout;
+    private final SharedIndexInformer<ManagedRedis> informer;
+    private final ManagedResourceCache resourceCache;
+    private final RedisNodeProber prober;
+    private final RespClient respClient;
+    private final RedisResourceRenderer renderer;
+    private final ResourceApplier resourceApplier;
+    private final ReconcileQueue reconcileQueue;
+    private final ShardCoordinator coordinator;
+    private final ExecutorFactory executorFactory;
+    private final OperatorMetrics metrics;
+    private final Map<String, TrackedPrimary> clusters = new ConcurrentHashMap<>();
+    // Promotions not yet recorded in status, by "namespace/name"
+    private final Map<String, Promotion> promotions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService checkExecutor;
+    private ExecutorService failoverExecutor;
+
+    public FailoverController(RedisConfig redisConfig, SharedIndexInformer<ManagedRedis> informer,
+                              ManagedResourceCache resourceCache, RedisNodeProber prober, RespClient respClient,
+                              RedisResourceRenderer renderer, ResourceApplier resourceApplier,
+                              ReconcileQueue reconcileQueue, ShardCoordinator coordinator,
+                              ExecutorFactory executorFactory, OperatorMetrics metrics) {
+        this.config = redisConfig.getFailover();
+        this.switchoverTimeout = redisConfig.getUpgrade().getSwitchoverTimeout();
+        this.informer = informer;
+        this.resourceCache = resourceCache;
+        this.prober = prober;
+        this.respClient = respClient;
+        this.renderer = renderer;
+        this.resourceApplier = resourceApplier;
+        this.reconcileQueue = reconcileQueue;
+        this.coordinator = coordinator;
+        this.executorFactory = executorFactory;
+        this.metrics = metrics;
+    }
+
+    /**
+     * A promoted replica, with when the promotion happened and how long writes were unavailable.
+     * Planned promotions are switchovers, not failovers.
+     */
+    static final class Promotion {
+        private final String primary;
+        private final Instant time;
+        private final long millis;
+        private final boolean planned;
+
+        Promotion(String primary, Instant time, long millis, boolean planned) {
+            this.primary = primary;
+            this.time = time;
+            this.millis = millis;
+            this.planned = planned;
+        }
+
+        String getPrimary() {
+            return primary;
+        }
+
+        Instant getTime() {
+            return time;
+        }
+
+        long getMillis() {
+            return millis;
+        }
+
+        boolean isPlanned() {
+            return planned;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        // Also runs planned switchovers, which do not depend on automatic failover
+        failoverExecutor = executorFactory.newTaskExecutor("failover", 2);
+        if (!config.isEnabled()) {
+            log.info("Automatic failover is disabled");
+            return;
+        }
+        checkExecutor = executorFactory.newScheduledPool("failover-check", 1);
+        checkExecutor.scheduleWithFixedDelay(this::checkPrimaries, config.getCheckInterval(),
+                config.getCheckInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts watching the primary of a cluster. Safe to call on every reconcile.
+     */
+    public void register(String key) {
+        clusters.computeIfAbsent(key, k -> new TrackedPrimary());
+    }
+
+    public void unregister(String key) {
+        clusters.remove(key);
+    }
+
+    public void forget(String key) {
+        clusters.remove(key);
+        promotions.remove(key);
+    }
+
+    /**
+     * The pod that should be primary: a promotion not yet in status, then status.currentPrimary, then pod 0.
+     */
+    public String currentPrimary(ManagedRedis redis) {
+        String recorded = redis.getStatus() == null ? null : redis.getStatus().getCurrentPrimary();
+        String key = ReconcileQueue.keyOf(redis);
+        Promotion promotion = promotions.get(key);
+        if (promotion != null) {
+            if (!promotion.getPrimary().equals(recorded)) {
+                return promotion.getPrimary();
+            }
+            // The cached status shows the promotion, so it is the source of truth again
+            promotions.remove(key, promotion);
+        }
+        return recorded != null ? recorded : redis.getMetadata().getName() + "-0";
+    }
+
+    Promotion getPromotion(String key) {
+        return promotions.get(key);
+    }
+
+    /**
+     * Repoints ready replicas that are not replicating the current primary, e.g. the old primary after
+     * it restarted as an empty master, or replicas whose startup script points at pod 0.
+     * Fire and forget; only needed once a cluster has failed over away from pod 0.
+     */
+    void repointReplicas(ManagedRedis redis) {
+        String primary = currentPrimary(redis);
+        if (primary.equals(redis.getMetadata().getName() + "-0")) {
+            return;
+        }
+        List<Pod> pods = resourceCache.getPods(redis.getMetadata().getNamespace(), redis.getMetadata().getName());
+        String primaryIP = podIP(pods, primary);
+        if (primaryIP == null) {
+            return;
+        }
+        String primaryService = redis.getMetadata().getName() + "-primary";
+        for (Pod pod : pods) {
+            String podIP = pod.getStatus() == null ? null : pod.getStatus().getPodIP();
+            if (podIP == null || pod.getMetadata().getName().equals(primary) || !StatusCalculator.isPodReady(pod)) {
+                continue;
+            }
+            prober.probe(podIP).thenAccept(probe -> {
+                if (probe.isReachable() && (probe.isPrimary()
+                        || !followsPrimary(probe.getMasterHost(), primaryIP, primaryService))) {
+                    log.info("Repointing {} to primary {}", pod.getMetadata().getName(), primary);
+                    respClient.send(address(podIP), "REPLICAOF", primaryIP, RedisConfig.REDIS_PORT);
+                }
+            });
+        }
+    }
+
+    /**
+     * A replica follows the primary by its IP or, after a restart (see the startup script), by the -primary
+     * Service, which selects the current primary.
+     */
+    private static boolean followsPrimary(String masterHost, String primaryIP, String primaryService) {
+        return masterHost != null && (masterHost.equals(primaryIP) || masterHost.equals(primaryService)
+                || masterHost.startsWith(primaryService + "."));
+    }
+
+    private void checkPrimaries() {
+        try {
+            clusters.forEach(this::checkPrimary);
+        } catch (Exception e) {
+            log.error("Failed to check primaries", e);
+        }
+    }
+
+    private void checkPrimary(String key, TrackedPrimary tracked) {
+        ManagedRedis redis = informer.getStore().getByKey(key);
+        // A registration left over from before an ownership change must not promote on another instance's cluster
+        if (redis == null || !coordinator.owns(key) || RedisResourceRenderer.isClusterMode(redis)
+                || redis.getSpec().getReplicas() < 2 || tracked.failingOver.get() || !tracked.checking.compareAndSet(false, true)) {
+            return;
+        }
+
+        String primary = currentPrimary(redis);
+        String primaryIP = podIP(resourceCache.getPods(redis.getMetadata().getNamespace(),
+                redis.getMetadata().getName()), primary);
+        CompletableFuture<NodeProbe> check = primaryIP == null
+                ? CompletableFuture.completedFuture(NodeProbe.unreachable("pod " + primary + " has no IP"))
+                : prober.probe(primaryIP);
+        check.whenComplete((probe, error) -> {
+            try {
+                onChecked(key, tracked, primary, error == null && probe.isReachable() && probe.isPrimary());
+            } finally {
+                tracked.checking.set(false);
+            }
+        });
+    }
+
+    private void onChecked(String key, TrackedPrimary tracked, String primary, boolean healthy) {
+        if (healthy) {
+            tracked.seenHealthy = true;
+            tracked.failures = 0;
+            return;
+        }
+        // A primary that has never answered is still starting, not failed
+        if (!tracked.seenHealthy) {
+            return;
+        }
+        if (tracked.failures++ == 0) {
+            tracked.firstFailureNanos = System.nanoTime();
+        }
+        if (tracked.failures >= config.getFailureThreshold() && tracked.failingOver.compareAndSet(false, true)) {
+            log.warn("Primary {} of {} failed {} consecutive checks, failing over", primary, key, tracked.failures);
+            failoverExecutor.execute(() -> {
+                try {
+                    failover(key, primary, tracked.firstFailureNanos);
+                } finally {
+                    tracked.failures = 0;
+                    tracked.failingOver.set(false);
+                }
+            });
+        }
+    }
+
+    private void failover(String key, String failedPrimary, long detectedNanos) {
+        ManagedRedis redis = informer.getStore().getByKey(key);
+        // Ownership may have moved while the failures were counted
+        if (redis == null || !coordinator.owns(key) || !failedPrimary.equals(currentPrimary(redis))) {
+            return;
+        }
+        String namespace = redis.getMetadata().getNamespace();
+        String name = redis.getMetadata().getName();
+
+        try {
+            // Probe every other ready replica afresh and pick the one that has processed the most of the stream
+            Map<Pod, CompletableFuture<NodeProbe>> candidates = new HashMap<>();
+            for (Pod pod : resourceCache.getPods(namespace, name)) {
+                String podIP = pod.getStatus() == null ? null : pod.getStatus().getPodIP();
+                if (podIP != null && !pod.getMetadata().getName().equals(failedPrimary)
+                        && pod.getMetadata().getDeletionTimestamp() == null && StatusCalculator.isPodReady(pod)) {
+                    candidates.put(pod, prober.probe(podIP));
+                }
+            }
+            Pod promoted = null;
+            long bestOffset = -1;
+            for (Map.Entry<Pod, CompletableFuture<NodeProbe>> candidate : candidates.entrySet()) {
+                NodeProbe probe = candidate.getValue().join();
+                long offset = probe.getReplicationOffset() == null ? 0 : probe.getReplicationOffset();
+                if (probe.isReachable() && offset > bestOffset) {
+                    promoted = candidate.getKey();
+                    bestOffset = offset;
+                }
+            }
+            if (promoted == null) {
+                log.error("No reachable replica to promote for {}", key);
+                metrics.recordFailover("nocandidate", System.nanoTime() - detectedNanos);
+                return;
+            }
+
+            String promotedName = promoted.getMetadata().getName();
+            String promotedIP = promoted.getStatus().getPodIP();
+            join(respClient.send(address(promotedIP), "REPLICAOF", "NO", "ONE"));
+            // Recorded before the Service is retargeted, so a concurrent reconcile renders the new selector
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - detectedNanos);
+            promotions.put(key, new Promotion(promotedName, Instant.now(), millis, false));
+            retargetPrimaryService(redis, promotedName);
+            long nanos = System.nanoTime() - detectedNanos;
+            metrics.recordFailover("promoted", nanos);
+            log.warn("Promoted {} (offset {}) to primary of {} in {} ms", promotedName, bestOffset, key,
+                    TimeUnit.NANOSECONDS.toMillis(nanos));
+
+            for (Pod pod : candidates.keySet()) {
+                if (pod != promoted) {
+                    respClient.send(address(pod.getStatus().getPodIP()), "REPLICAOF", promotedIP, RedisConfig.REDIS_PORT);
+                }
+            }
+            // Records status.currentPrimary and the failover time
+            reconcileQueue.add(key);
+        } catch (RuntimeException e) {
+            log.error("Failover of {} failed", key, e);
+            metrics.recordFailover("error", System.nanoTime() - detectedNanos);
+            // A promotion that was made is finished by the reconciler, which renders the Service for it
+            reconcileQueue.addRateLimited(key);
+        }
+    }
+
+    /**
+     * Makes target, a ready replica, the primary without losing writes: writes are paused on the current
+     * primary until target has processed its whole replication stream, then target is promoted, the -primary
+     * Service retargeted and the old primary and other replicas repointed. Writes stay paused for at most
+     * switchover-timeout; if target has not caught up by then nothing changes and the returned future fails.
+     * Completes with false if a failover or switchover of the cluster is already running.
+     */
+    public CompletableFuture<Boolean> switchover(ManagedRedis redis, String target) {
+        String key = ReconcileQueue.keyOf(redis);
+        TrackedPrimary tracked = clusters.computeIfAbsent(key, k -> new TrackedPrimary());
+        if (!tracked.failingOver.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    switchover(key, redis, target);
+                    return true;
+                } finally {
+                    tracked.failures = 0;
+                    tracked.failingOver.set(false);
+                }
+            }, failoverExecutor);
+        } catch (RuntimeException e) {
+            tracked.failingOver.set(false);
+            throw e;
+        }
+    }
+
+    private void switchover(String key, ManagedRedis redis, String target) {
+        String primary = currentPrimary(redis);
+        List<Pod> pods = resourceCache.getPods(redis.getMetadata().getNamespace(), redis.getMetadata().getName());
+        String primaryIP = podIP(pods, primary);
+        String targetIP = podIP(pods, target);
+        if (primaryIP == null || targetIP == null || primary.equals(target)) {
+            throw new IllegalStateException("Cannot switch " + key + " over from " + primary + " to " + target);
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(switchoverTimeout);
+        boolean writesOnly = pauseWrites(primaryIP);
+        boolean promoted = false;
+        try {
+            awaitCatchUp(primaryIP, targetIP, writesOnly, deadline);
+            join(respClient.send(address(targetIP), "REPLICAOF", "NO", "ONE"));
+            promoted = true;
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            promotions.put(key, new Promotion(target, Instant.now(), millis, true));
+            retargetPrimaryService(redis, target);
+            // The old primary keeps its dataset and continues as a replica of the new one
+            join(respClient.send(address(primaryIP), "REPLICAOF", targetIP, RedisConfig.REDIS_PORT));
+            for (Pod pod : pods) {
+                String podName = pod.getMetadata().getName();
+                String podIP = pod.getStatus() == null ? null : pod.getStatus().getPodIP();
+                if (podIP != null && !podName.equals(primary) && !podName.equals(target)
+                        && StatusCalculator.isPodReady(pod)) {
+                    respClient.send(address(podIP), "REPLICAOF", targetIP, RedisConfig.REDIS_PORT);
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            metrics.recordFailover("switchover", nanos);
+            log.info("Switched {} over from {} to {}, writes paused for {} ms", key, primary, target,
+                    TimeUnit.NANOSECONDS.toMillis(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Switchover of " + key + " interrupted", e);
+        } catch (RuntimeException e) {
+            metrics.recordFailover("error", System.nanoTime() - start);
+            if (!promoted) {
+                log.warn("Switchover of {} to {} aborted: {}", key, target, e.getMessage());
+            } else {
+                log.error("Switchover of {} to {} failed after the promotion", key, target, e);
+            }
+            throw e;
+        } finally {
+            // Unknown before 6.2, where the pause simply expires
+            respClient.send(address(primaryIP), "CLIENT", "UNPAUSE");
+            // Records status.currentPrimary, or retries a switchover that did not complete
+            reconcileQueue.add(key);
+        }
+    }
+
+    /**
+     * Pauses writes only (Redis 6.2 and later), falling back to pausing all clients when the primary rejects
+     * the WRITE option. Returns false for the fallback; timeouts and connection failures are rethrown.
+     */
+    private boolean pauseWrites(String primaryIP) {
+        String timeout = String.valueOf(switchoverTimeout);
+        try {
+            respClient.send(address(primaryIP), "CLIENT", "PAUSE", timeout, "WRITE").join();
+            return true;
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof RespClient.RespException)) {
+                throw new IllegalStateException(e.getCause() != null ? e.getCause().getMessage() : e.getMessage(), e);
+            }
+            log.debug("CLIENT PAUSE WRITE rejected by {} ({}), pausing all clients", primaryIP, e.getCause().getMessage());
+            join(respClient.send(address(primaryIP), "CLIENT", "PAUSE", timeout));
+            return false;
+        }
+    }
+
+    /**
+     * Waits until the target has processed everything the paused primary wrote. A primary paused with
+     * the pre-6.2 command does not answer INFO either, so the target is then taken to have caught up once
+     * its offset stops moving.
+     */
+    private void awaitCatchUp(String primaryIP, String targetIP, boolean writesOnly, long deadline)
+            throws InterruptedException {
+        Long previous = null;
+        while (true) {
+            // With writes paused the primary's offset only moves for its own replication pings
+            Long primaryOffset = writesOnly ? primaryOffset(primaryIP) : null;
+            NodeProbe probe = prober.probe(targetIP).join();
+            Long offset = probe.isReachable() && !probe.isPrimary() && "up".equals(probe.getLinkStatus())
+                    ? probe.getReplicationOffset() : null;
+            if (offset != null && (primaryOffset != null ? offset >= primaryOffset : offset.equals(previous))) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(targetIP + " did not catch up with the primary within "
+                        + switchoverTimeout + " ms");
+            }
+            previous = offset;
+            Thread.sleep(writesOnly ? 10 : 50);
+        }
+    }
+
+    private long primaryOffset(String primaryIP) {
+        NodeProbe probe = prober.probe(primaryIP).join();
+        if (!probe.isReachable() || !probe.isPrimary() || probe.getReplicationOffset() == null) {
+            throw new IllegalStateException("Primary " + primaryIP + " is not available: " + probe.getError());
+        }
+        return probe.getReplicationOffset();
+    }
+
+    private void retargetPrimaryService(ManagedRedis redis, String primary) {
+        String name = redis.getMetadata().getName();
+        Service primaryService = renderer.render(redis, primary).getServices().stream()
+                .filter(service -> service.getMetadata().getName().equals(name + "-primary"))
+                .findFirst().orElseThrow();
+        resourceApplier.apply(primaryService, resourceCache.getService(redis.getMetadata().getNamespace(),
+                name + "-primary"));
+    }
+
+    private static String podIP(List<Pod> pods, String podName) {
+        for (Pod pod : pods) {
+            if (pod.getMetadata().getName().equals(podName) && pod.getMetadata().getDeletionTimestamp() == null) {
+                return pod.getStatus() == null ? null : pod.getStatus().getPodIP();
+            }
+        }
+        return null;
+    }
+
+    private static InetSocketAddress address(String podIP) {
+        return new InetSocketAddress(podIP, Integer.parseInt(RedisConfig.REDIS_PORT));
+    }
+
+    private static Object join(CompletableFuture<Object> reply) {
+        try {
+            return reply.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException(e.getCause() != null ? e.getCause().getMessage() : e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (checkExecutor != null) {
+            checkExecutor.shutdownNow();
+        }
+        if (failoverExecutor != null) {
+            failoverExecutor.shutdownNow();
+        }
+    }
+
+    private static final class TrackedPrimary {
+        private final AtomicBoolean checking = new AtomicBoolean();
+        private final AtomicBoolean failingOver = new AtomicBoolean();
+        private volatile boolean seenHealthy;
+        private volatile int failures;
+        private volatile long firstFailureNanos;
+    }
+}
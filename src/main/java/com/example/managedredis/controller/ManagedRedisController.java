@@ -1,46 +1,206 @@
 package com.example.managedredis.controller;
 
 import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisBatchRequest;
+import com.example.managedredis.model.ManagedRedisBatchResult;
+import com.example.managedredis.model.ManagedRedisOperation;
+import com.example.managedredis.model.ManagedRedisPage;
+import com.example.managedredis.service.ManagedRedisBatchService;
 import com.example.managedredis.service.ManagedRedisService;
+import com.example.managedredis.service.ManagedRedisWatchHub;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/managedredis")
 @Tag(name = "ManagedRedis", description = "Redis 클러스터 관리 API")
 public class ManagedRedisController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int MAX_LIMIT = 1000;
+
     private final ManagedRedisService managedRedisService;
+    private final ManagedRedisBatchService batchService;
+    private final ManagedRedisWatchHub watchHub;
+    private final ObjectMapper objectMapper;
 
-    public ManagedRedisController(ManagedRedisService managedRedisService) {
+    public ManagedRedisController(ManagedRedisService managedRedisService, ManagedRedisBatchService batchService,
+                                  ManagedRedisWatchHub watchHub, ObjectMapper objectMapper) {
         this.managedRedisService = managedRedisService;
+        this.batchService = batchService;
+        this.watchHub = watchHub;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     @Operation(
         summary = "Redis 클러스터 생성",
-        description = "새로운 Redis 클러스터를 생성"
+        description = "새로운 Redis 클러스터를 생성. async=true이면 202와 함께 프로비저닝 진행 상황을 추적하는 operation을 반환"
     )
     @ApiResponse(
         responseCode = "200",
         description = "Redis 클러스터가 성공적으로 생성됨",
         content = @Content(schema = @Schema(implementation = ManagedRedis.class))
     )
-    public ManagedRedis createRedis(
+    @ApiResponse(
+        responseCode = "202",
+        description = "생성 요청이 접수됨 (Location 헤더의 operation으로 진행 상황 조회)",
+        content = @Content(schema = @Schema(implementation = ManagedRedisOperation.class))
+    )
+    public ResponseEntity<Object> createRedis(
             @Parameter(description = "Redis 클러스터 생성 요청 본문")
-            @RequestBody ManagedRedis redis) {
-        return managedRedisService.createManagedRedis(redis);
+            @RequestBody ManagedRedis redis,
+            @Parameter(description = "true이면 프로비저닝 완료를 기다리지 않고 operation을 반환")
+            @RequestParam(defaultValue = "false") boolean async) {
+        if (!async) {
+            return ResponseEntity.ok(managedRedisService.createManagedRedis(redis));
+        }
+
+        ManagedRedisOperation operation = managedRedisService.createManagedRedisAsync(redis);
+        return ResponseEntity.accepted()
+                .location(URI.create(OperationController.PATH + "/" + operation.getId()))
+                .body(operation);
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+        summary = "Redis 클러스터 일괄 생성/삭제",
+        description = "여러 Redis 클러스터를 제한된 동시성으로 병렬 생성/삭제하고 항목별 결과를 완료 순서대로 NDJSON으로 전송. "
+                + "같은 Idempotency-Key로 다시 요청하면 기록된 결과를 그대로 반환"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "항목별 결과 NDJSON 스트림",
+        content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = ManagedRedisBatchResult.class))
+    )
+    public ResponseEntity<StreamingResponseBody> batchRedis(
+            @Parameter(description = "생성할 Redis 클러스터 목록, 삭제할 이름 목록과 실패 정책 (CONTINUE/ABORT)")
+            @RequestBody ManagedRedisBatchRequest request,
+            @Parameter(description = "재시도 시 중복 실행을 막기 위한 키")
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        ManagedRedisBatchService.Batch batch = batchService.prepare(request, idempotencyKey);
+        StreamingResponseBody body = output -> {
+            OutputStream out = new BufferedOutputStream(output);
+            batch.run(result -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(result));
+                    out.write('\n');
+                    // Results are useful as soon as each item finishes
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @GetMapping
+    @Operation(
+        summary = "Redis 클러스터 목록 조회",
+        description = "limit/continue 토큰으로 페이지 단위 조회, 레이블 셀렉터와 phase로 필터링"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Redis 클러스터 목록 조회 성공",
+        content = @Content(schema = @Schema(implementation = ManagedRedisPage.class))
+    )
+    public ManagedRedisPage listRedis(
+            @Parameter(description = "조회할 네임스페이스")
+            @RequestParam(required = false) String namespace,
+            @Parameter(description = "레이블 셀렉터 (예: team=cache,env!=dev)")
+            @RequestParam(required = false) String labelSelector,
+            @Parameter(description = "phase 필터 (예: Running)")
+            @RequestParam(required = false) String phase,
+            @Parameter(description = "페이지 크기 (최대 1000)")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "이전 응답의 continueToken")
+            @RequestParam(name = "continue", required = false) String continueToken,
+            @Parameter(description = "true이면 캐시를 거치지 않고 API 서버에서 직접 조회")
+            @RequestParam(defaultValue = "false") boolean consistent) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return managedRedisService.list(namespace, labelSelector, phase, pageSize, continueToken, consistent);
+    }
+
+    @GetMapping(params = "stream=true")
+    @Operation(
+        summary = "Redis 클러스터 목록 스트리밍 조회",
+        description = "필터에 맞는 전체 목록을 한 줄에 하나씩 NDJSON으로 전송 (응답 전체를 메모리에 만들지 않음)"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "NDJSON 스트림",
+        content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = ManagedRedis.class))
+    )
+    public ResponseEntity<StreamingResponseBody> streamRedis(
+            @Parameter(description = "조회할 네임스페이스")
+            @RequestParam(required = false) String namespace,
+            @Parameter(description = "레이블 셀렉터 (예: team=cache,env!=dev)")
+            @RequestParam(required = false) String labelSelector,
+            @Parameter(description = "phase 필터 (예: Running)")
+            @RequestParam(required = false) String phase,
+            @Parameter(description = "true이면 캐시를 거치지 않고 API 서버에서 직접 조회")
+            @RequestParam(defaultValue = "false") boolean consistent) {
+        StreamingResponseBody body = output -> {
+            OutputStream out = new BufferedOutputStream(output);
+            managedRedisService.stream(namespace, labelSelector, phase, consistent, redis -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(redis));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @GetMapping(path = "/watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Redis 클러스터 변경 감시 (SSE)",
+        description = "ADDED/MODIFIED/DELETED 이벤트를 Server-Sent Events로 전송. 이벤트 id는 resourceVersion이며 "
+                + "resourceVersion 또는 Last-Event-ID로 이어서 받을 수 있음 (너무 오래된 경우 code 410 ERROR 이벤트)"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "이벤트 스트림",
+        content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = ManagedRedis.class))
+    )
+    public SseEmitter watchRedis(
+            @Parameter(description = "감시할 네임스페이스")
+            @RequestParam(defaultValue = "default") String namespace,
+            @Parameter(description = "특정 Redis 클러스터 이름 (생략 시 네임스페이스 전체)")
+            @RequestParam(required = false) String name,
+            @Parameter(description = "이 resourceVersion 이후의 이벤트부터 전송 (생략 시 현재 상태부터)")
+            @RequestParam(required = false) String resourceVersion,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return watchHub.subscribe(namespace, name, resourceVersion != null ? resourceVersion : lastEventId);
     }
 
     @GetMapping("/{name}")
     @Operation(
         summary = "특정 Redis 클러스터 조회",
-        description = "지정된 이름의 Redis 클러스터를 조회"
+        description = "지정된 이름의 Redis 클러스터를 조회 (기본적으로 Operator의 로컬 캐시에서 응답)"
     )
     @ApiResponse(
         responseCode = "200",
@@ -49,8 +209,12 @@ public class ManagedRedisController {
     )
     public ManagedRedis getRedis(
             @Parameter(description = "Redis 클러스터 이름")
-            @PathVariable String name) {
-        return managedRedisService.getManagedRedis(name);
+            @PathVariable String name,
+            @Parameter(description = "true이면 캐시를 거치지 않고 API 서버에서 직접 조회")
+            @RequestParam(defaultValue = "false") boolean consistent,
+            @Parameter(description = "이 resourceVersion 이상인 경우에만 캐시에서 응답")
+            @RequestParam(required = false) String resourceVersion) {
+        return managedRedisService.getManagedRedis(name, consistent, resourceVersion);
     }
 
     @DeleteMapping("/{name}")
@@ -67,4 +231,14 @@ public class ManagedRedisController {
             @PathVariable String name) {
         managedRedisService.deleteManagedRedis(name);
     }
-}
\ No newline at end of file
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
+    }
+
+    @ExceptionHandler(ManagedRedisBatchService.ConflictException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(ManagedRedisBatchService.ConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Informers over the StatefulSets, Services, ConfigMaps and Pods created by the operator (managed-by=managedredis-operator).
+ * Readiness transitions requeue the owning ManagedRedis so its phase follows the pods
+ * without any thread waiting on them; spec changes and deletions of children requeue it to repair drift.
+ */
+@Component
+public class ManagedResourceCache {
+
+    // Index of child resources by owning ManagedRedis ("namespace/app-label")
+    public static final String APP_INDEX = "app";
+
+    private final ReconcileQueue reconcileQueue;
+    private final SharedIndexInformer<StatefulSet> statefulSetInformer;
+    private final SharedIndexInformer<Service> serviceInformer;
+    private final SharedIndexInformer<ConfigMap> configMapInformer;
+    private final SharedIndexInformer<Pod> podInformer;
+    private volatile boolean requeueing;
+
+    public ManagedResourceCache(KubernetesClient kubernetesClient, ReconcileQueue reconcileQueue) {
+        this.reconcileQueue = reconcileQueue;
+        this.statefulSetInformer = kubernetesClient.apps().statefulSets()
+                .inAnyNamespace()
+                .withLabel(RedisConfig.MANAGED_BY_LABEL, RedisConfig.MANAGED_BY)
+                .withIndexers(Map.of(APP_INDEX, ManagedResourceCache::ownerKeys))
+                .inform(readinessHandler(statefulSet -> statefulSet.getStatus() == null
+                        ? Collections.singletonList(statefulSet.getMetadata().getGeneration())
+                        // Revisions and observedGeneration pace a partitioned rollout
+                        : Arrays.asList(statefulSet.getMetadata().getGeneration(),
+                                statefulSet.getStatus().getReadyReplicas(),
+                                statefulSet.getStatus().getObservedGeneration(),
+                                statefulSet.getStatus().getCurrentRevision(),
+                                statefulSet.getStatus().getUpdateRevision())));
+        this.serviceInformer = kubernetesClient.services()
+                .inAnyNamespace()
+                .withLabel(RedisConfig.MANAGED_BY_LABEL, RedisConfig.MANAGED_BY)
+                .inform(readinessHandler(Service::getSpec));
+        this.configMapInformer = kubernetesClient.configMaps()
+                .inAnyNamespace()
+                .withLabel(RedisConfig.MANAGED_BY_LABEL, RedisConfig.MANAGED_BY)
+                .inform(readinessHandler(ConfigMap::getData));
+        this.podInformer = kubernetesClient.pods()
+                .inAnyNamespace()
+                .withLabel(RedisConfig.MANAGED_BY_LABEL, RedisConfig.MANAGED_BY)
+                .withIndexers(Map.of(APP_INDEX, ManagedResourceCache::ownerKeys))
+                .inform(readinessHandler(StatusCalculator::isPodReady));
+    }
+
+    public StatefulSet getStatefulSet(String namespace, String name) {
+        return statefulSetInformer.getStore().getByKey(Cache.namespaceKeyFunc(namespace, name));
+    }
+
+    /**
+     * Every StatefulSet of a ManagedRedis: one, or one per shard in cluster mode (including shards being retired).
+     */
+    public List<StatefulSet> getStatefulSets(String namespace, String app) {
+        return statefulSetInformer.getIndexer().byIndex(APP_INDEX, Cache.namespaceKeyFunc(namespace, app));
+    }
+
+    public Service getService(String namespace, String name) {
+        return serviceInformer.getStore().getByKey(Cache.namespaceKeyFunc(namespace, name));
+    }
+
+    public ConfigMap getConfigMap(String namespace, String name) {
+        return configMapInformer.getStore().getByKey(Cache.namespaceKeyFunc(namespace, name));
+    }
+
+    public List<Pod> getPods(String namespace, String app) {
+        return podInformer.getIndexer().byIndex(APP_INDEX, Cache.namespaceKeyFunc(namespace, app));
+    }
+
+    public boolean hasSynced() {
+        return statefulSetInformer.hasSynced() && serviceInformer.hasSynced() && configMapInformer.hasSynced()
+                && podInformer.hasSynced();
+    }
+
+    public SharedIndexInformer<StatefulSet> getStatefulSetInformer() {
+        return statefulSetInformer;
+    }
+
+    public SharedIndexInformer<Pod> getPodInformer() {
+        return podInformer;
+    }
+
+    private <T extends HasMetadata> ResourceEventHandler<T> readinessHandler(Function<T, Object> readiness) {
+        return new ResourceEventHandler<T>() {
+            @Override
+            public void onAdd(T resource) {
+                requeueOwner(resource);
+            }
+
+            @Override
+            public void onUpdate(T oldResource, T newResource) {
+                if (!Objects.equals(readiness.apply(oldResource), readiness.apply(newResource))) {
+                    requeueOwner(newResource);
+                }
+            }
+
+            @Override
+            public void onDelete(T resource, boolean deletedFinalStateUnknown) {
+                requeueOwner(resource);
+            }
+        };
+    }
+
+    /**
+     * Called once the operator has compared every cluster after startup. Until then events only fill the
+     * caches, since the initial list would otherwise requeue every ManagedRedis.
+     */
+    public void startRequeueing() {
+        requeueing = true;
+    }
+
+    private void requeueOwner(HasMetadata resource) {
+        if (requeueing) {
+            ownerKeys(resource).forEach(reconcileQueue::add);
+        }
+    }
+
+    private static List<String> ownerKeys(HasMetadata resource) {
+        Map<String, String> labels = resource.getMetadata().getLabels();
+        String owner = labels == null ? null : labels.get(RedisConfig.APP_LABEL);
+        if (owner == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(Cache.namespaceKeyFunc(resource.getMetadata().getNamespace(), owner));
+    }
+
+    @PreDestroy
+    public void close() {
+        statefulSetInformer.close();
+        serviceInformer.close();
+        configMapInformer.close();
+        podInformer.close();
+    }
+}
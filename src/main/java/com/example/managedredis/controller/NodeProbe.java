@@ -0,0 +1,104 @@
+package com.example.managedredis.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Result of probing one Redis node with PING and INFO replication.
+ */
+final class NodeProbe {
+    static final String MASTER = "master";
+
+    private final boolean reachable;
+    private final Double latencyMillis;
+    private final String role;
+    private final Long replicationOffset;
+    private final Integer connectedReplicas;
+    private final String linkStatus;
+    private final String masterHost;
+    private final String error;
+
+    private NodeProbe(boolean reachable, Double latencyMillis, String role, Long replicationOffset,
+                      Integer connectedReplicas, String linkStatus, String masterHost, String error) {
+        this.reachable = reachable;
+        this.latencyMillis = latencyMillis;
+        this.role = role;
+        this.replicationOffset = replicationOffset;
+        this.connectedReplicas = connectedReplicas;
+        this.linkStatus = linkStatus;
+        this.masterHost = masterHost;
+        this.error = error;
+    }
+
+    static NodeProbe unreachable(String error) {
+        return new NodeProbe(false, null, null, null, null, null, null, error);
+    }
+
+    /**
+     * Builds a probe from the PING round trip and the INFO replication text.
+     */
+    static NodeProbe of(long latencyNanos, String info) {
+        Map<String, String> fields = parseInfo(info);
+        String role = fields.get("role");
+        // A replica reports the offset it has processed as slave_repl_offset
+        String offset = MASTER.equals(role) ? fields.get("master_repl_offset") : fields.get("slave_repl_offset");
+        return new NodeProbe(true,
+                Math.round(latencyNanos / 10_000.0) / 100.0,
+                role,
+                offset == null ? null : Long.valueOf(offset),
+                fields.containsKey("connected_slaves") ? Integer.valueOf(fields.get("connected_slaves")) : null,
+                fields.get("master_link_status"),
+                fields.get("master_host"),
+                null);
+    }
+
+    static Map<String, String> parseInfo(String info) {
+        Map<String, String> fields = new HashMap<>();
+        if (info == null) {
+            return fields;
+        }
+        for (String line : info.split("\r?\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && !line.startsWith("#")) {
+                fields.put(line.substring(0, colon), line.substring(colon + 1).trim());
+            }
+        }
+        return fields;
+    }
+
+    boolean isReachable() {
+        return reachable;
+    }
+
+    boolean isPrimary() {
+        return MASTER.equals(role);
+    }
+
+    Double getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    String getRole() {
+        return role;
+    }
+
+    Long getReplicationOffset() {
+        return replicationOffset;
+    }
+
+    Integer getConnectedReplicas() {
+        return connectedReplicas;
+    }
+
+    String getLinkStatus() {
+        return linkStatus;
+    }
+
+    String getMasterHost() {
+        return masterHost;
+    }
+
+    String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.model.ManagedRedisOperation;
+import com.example.managedredis.service.OperationStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping(OperationController.PATH)
+@Tag(name = "Operation", description = "비동기 작업 조회 API")
+public class OperationController {
+    static final String PATH = "/api/v1/operations";
+
+    private final OperationStore operationStore;
+
+    public OperationController(OperationStore operationStore) {
+        this.operationStore = operationStore;
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+        summary = "작업 조회",
+        description = "단계별(StatefulSet 적용, Service 적용, Pod 준비) 완료 시각과 경과 시간을 포함한 작업 상태를 조회. "
+                + "wait를 지정하면 작업이 끝나거나 시간이 초과될 때까지 응답을 보류"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "작업 조회 성공",
+        content = @Content(schema = @Schema(implementation = ManagedRedisOperation.class))
+    )
+    public DeferredResult<ManagedRedisOperation> getOperation(
+            @Parameter(description = "작업 ID")
+            @PathVariable String id,
+            @Parameter(description = "완료까지 대기할 최대 시간 (초, 0이면 즉시 응답)")
+            @RequestParam(defaultValue = "0") long wait) {
+        ManagedRedisOperation operation = operationStore.get(id);
+        if (operation == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Operation not found: " + id);
+        }
+        if (wait <= 0) {
+            DeferredResult<ManagedRedisOperation> result = new DeferredResult<>();
+            result.setResult(operation);
+            return result;
+        }
+        return operationStore.await(operation, wait);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.managedredis.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters for the reconcile hot path. Kubernetes API calls are timed separately by MeteredOkHttpClientFactory.
+ */
+@Component
+public class OperatorMetrics {
+    static final String RECONCILE = "managedredis.reconcile";
+    static final String RECONCILE_STAGE = "managedredis.reconcile.stage";
+    static final String RECONCILE_RETRIES = "managedredis.reconcile.retries";
+    static final String HEALTH_TICK_LAG = "managedredis.health.tick.lag";
+    static final String STATUS_WRITES = "managedredis.status.writes";
+    static final String STATUS_WRITE_RETRIES = "managedredis.status.write.retries";
+    static final String TIME_TO_RUNNING = "managedredis.time.to.running";
+    static final String APPLY = "managedredis.apply";
+    static final String FAILOVER = "managedredis.failover";
+    static final String AUTOSCALE = "managedredis.autoscaler.scale";
+    static final String INITIAL_SYNC = "managedredis.initial.sync";
+    static final String INITIAL_SYNC_CLUSTERS = "managedredis.initial.sync.clusters";
+
+    private final MeterRegistry registry;
+    private final Counter reconcileRetries;
+    private final Counter statusWriteRetries;
+    private final Timer healthTickLag;
+    private final Timer timeToRunning;
+
+    public OperatorMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.reconcileRetries = Counter.builder(RECONCILE_RETRIES)
+                .description("Reconciles requeued with backoff after a failure")
+                .register(registry);
+        this.statusWriteRetries = Counter.builder(STATUS_WRITE_RETRIES)
+                .description("Failed status patches requeued with backoff")
+                .register(registry);
+        this.healthTickLag = Timer.builder(HEALTH_TICK_LAG)
+                .description("Delay between a health sweep's scheduled and actual start")
+                .register(registry);
+        this.timeToRunning = Timer.builder(TIME_TO_RUNNING)
+                .description("Time from ManagedRedis creation until it first reaches Running")
+                .register(registry);
+    }
+
+    public <T> T timeStage(String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = work.get();
+            outcome = "success";
+            return result;
+        } finally {
+            Timer.builder(RECONCILE_STAGE)
+                    .tag("stage", stage)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void timeStage(String stage, Runnable work) {
+        timeStage(stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public void recordReconcile(String outcome, long nanos) {
+        Timer.builder(RECONCILE)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void reconcileRetried() {
+        reconcileRetries.increment();
+    }
+
+    public void recordHealthTickLag(long nanos) {
+        healthTickLag.record(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+    }
+
+    public void statusWrite(String result) {
+        registry.counter(STATUS_WRITES, "result", result).increment();
+    }
+
+    public void applied(String kind, String result) {
+        registry.counter(APPLY, "kind", kind, "result", result).increment();
+    }
+
+    public void statusWriteRetried() {
+        statusWriteRetries.increment();
+    }
+
+    public void recordTimeToRunning(Duration duration) {
+        if (!duration.isNegative()) {
+            timeToRunning.record(duration);
+        }
+    }
+
+    /**
+     * Time from the first failed primary check to the primary Service pointing at the promoted replica.
+     */
+    public void recordFailover(String result, long nanos) {
+        Timer.builder(FAILOVER)
+                .description("Primary failovers, from detection to the primary Service being retargeted")
+                .tag("result", result)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void autoscaled(String direction) {
+        registry.counter(AUTOSCALE, "direction", direction).increment();
+    }
+
+    /**
+     * Startup: time until every cached ManagedRedis was compared with its rendered state, and how many needed a reconcile.
+     */
+    public void recordInitialSync(long nanos, int converged, int drifted) {
+        Timer.builder(INITIAL_SYNC)
+                .description("Time from operator start until every cluster was compared with its rendered state")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        registry.counter(INITIAL_SYNC_CLUSTERS, "result", "converged").increment(converged);
+        registry.counter(INITIAL_SYNC_CLUSTERS, "result", "drifted").increment(drifted);
+    }
+
+    public <T> void gauge(String name, String description, T target, ToDoubleFunction<T> value) {
+        Gauge.builder(name, target, value).description(description).register(registry);
+    }
+}
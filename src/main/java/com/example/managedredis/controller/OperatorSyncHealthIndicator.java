@@ -0,0 +1,31 @@
+package com.example.managedredis.controller;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the operator out of service until every ManagedRedis has been compared after startup, so a
+ * rolling deployment of the operator waits for the new instance to have taken over before stopping the old one.
+ */
+@Component("operatorSync")
+public class OperatorSyncHealthIndicator implements HealthIndicator {
+    private final RedisOperator operator;
+
+    public OperatorSyncHealthIndicator(RedisOperator operator) {
+        this.operator = operator;
+    }
+
+    @Override
+    public Health health() {
+        RedisOperator.InitialSync sync = operator.getInitialSync();
+        if (sync == null) {
+            return Health.outOfService().withDetail("reason", "initial sync in progress").build();
+        }
+        return Health.up()
+                .withDetail("clusters", sync.getClusters())
+                .withDetail("reconciled", sync.getDrifted())
+                .withDetail("durationMillis", sync.getMillis())
+                .build();
+    }
+}
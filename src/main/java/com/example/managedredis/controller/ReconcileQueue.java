@@ -0,0 +1,149 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.ExecutorFactory;
+import com.example.managedredis.config.RedisConfig;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work queue of ManagedRedis keys ("namespace/name").
+ * A key is queued at most once, and a key that is being reconciled is never handed
+ * to a second worker; events arriving meanwhile mark it dirty so it is requeued when done.
+ */
+@Component
+public class ReconcileQueue {
+
+    private final Deque<String> queue = new ArrayDeque<>();
+    private final Set<String> dirty = new HashSet<>();
+    private final Set<String> processing = new HashSet<>();
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+    private final Map<String, Long> backoffUntil = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService delayExecutor;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private boolean shuttingDown;
+
+    public ReconcileQueue(RedisConfig redisConfig, OperatorMetrics metrics, ExecutorFactory executorFactory) {
+        this.delayExecutor = executorFactory.newScheduledPool("reconcile-delay", 1);
+        this.initialBackoff = redisConfig.getReconcile().getInitialBackoff();
+        this.maxBackoff = redisConfig.getReconcile().getMaxBackoff();
+        metrics.gauge("managedredis.reconcile.queue.depth", "Keys waiting for a reconcile worker",
+                this, ReconcileQueue::size);
+        metrics.gauge("managedredis.reconcile.failing", "Keys whose last reconcile failed",
+                failures, Map::size);
+    }
+
+    public static String keyOf(HasMetadata resource) {
+        return Cache.metaNamespaceKeyFunc(resource);
+    }
+
+    public void add(String key) {
+        if (isBackingOff(key)) {
+            // A retry is already scheduled for the end of the backoff window
+            return;
+        }
+        enqueue(key);
+    }
+
+    private synchronized void enqueue(String key) {
+        if (shuttingDown || dirty.contains(key)) {
+            return;
+        }
+        dirty.add(key);
+        if (processing.contains(key)) {
+            return;
+        }
+        queue.addLast(key);
+        notifyAll();
+    }
+
+    public void addAfter(String key, long delayMillis) {
+        if (delayMillis <= 0) {
+            enqueue(key);
+            return;
+        }
+        try {
+            delayExecutor.schedule(() -> enqueue(key), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Queue is shutting down
+        }
+    }
+
+    /**
+     * Requeues the key after a per-key exponential backoff (initialBackoff * 2^failures, capped at maxBackoff).
+     * Events for the key during the backoff window collapse into the scheduled retry.
+     */
+    public void addRateLimited(String key) {
+        int attempts = failures.merge(key, 1, Integer::sum);
+        long delay = Math.min(initialBackoff << Math.min(attempts - 1, 30), maxBackoff);
+        backoffUntil.put(key, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+        addAfter(key, delay);
+    }
+
+    public void forget(String key) {
+        failures.remove(key);
+        backoffUntil.remove(key);
+    }
+
+    public int getFailures(String key) {
+        return failures.getOrDefault(key, 0);
+    }
+
+    /**
+     * Blocks until a key is available. Returns null once the queue is shut down.
+     */
+    public synchronized String take() throws InterruptedException {
+        while (queue.isEmpty() && !shuttingDown) {
+            wait();
+        }
+        if (shuttingDown) {
+            return null;
+        }
+        String key = queue.pollFirst();
+        processing.add(key);
+        dirty.remove(key);
+        return key;
+    }
+
+    public synchronized void done(String key) {
+        processing.remove(key);
+        if (dirty.contains(key)) {
+            if (isBackingOff(key)) {
+                dirty.remove(key);
+                return;
+            }
+            queue.addLast(key);
+            notifyAll();
+        }
+    }
+
+    private boolean isBackingOff(String key) {
+        Long until = backoffUntil.get(key);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            shuttingDown = true;
+            notifyAll();
+        }
+        delayExecutor.shutdownNow();
+    }
+}
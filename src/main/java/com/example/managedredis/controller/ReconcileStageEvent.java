@@ -0,0 +1,44 @@
+package com.example.managedredis.controller;
+
+import java.time.Instant;
+
+/**
+ * Published by RedisOperator as a ManagedRedis moves through provisioning.
+ */
+public class ReconcileStageEvent {
+    public enum Stage { STATEFULSET_APPLIED, SERVICES_APPLIED, PODS_READY, FAILED }
+
+    private final String namespace;
+    private final String name;
+    private final Stage stage;
+    private final Instant timestamp;
+    private final String message;
+
+    public ReconcileStageEvent(String namespace, String name, Stage stage, String message) {
+        this.namespace = namespace;
+        this.name = name;
+        this.stage = stage;
+        this.timestamp = Instant.now();
+        this.message = message;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,473 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisStatus;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Forms and rebalances the Redis Cluster of a ManagedRedis in cluster mode (spec.size > 0) over RESP.
+ * Each pass reads CLUSTER NODES from every pod and moves the cluster one step towards: every pod joined,
+ * one primary per shard replicated by the other pods of the shard, and the 16384 hash slots spread evenly
+ * over shards [0, size). Rebalancing moves only the excess slots of each shard. Shards at or above size
+ * are drained and reported as retired once they hold no slots, so their StatefulSets can be deleted
+ * without losing keys. Slot moves are bounded per pass; the caller requeues until the cluster is settled.
+ */
+@Component
+public class RedisClusterManager {
+    private static final Logger log = LoggerFactory.getLogger(RedisClusterManager.class);
+
+    static final int SLOTS = 16384;
+
+    private final RespClient respClient;
+    private final RedisConfig.Cluster config;
+
+    public RedisClusterManager(RespClient respClient, RedisConfig redisConfig) {
+        this.respClient = respClient;
+        this.config = redisConfig.getCluster();
+    }
+
+    /**
+     * Result of one pass. Shards is null while the pods are not all up or the nodes have not met yet.
+     */
+    static final class Topology {
+        private final List<ManagedRedisStatus.Shard> shards;
+        private final List<String> retired;
+        private final boolean settled;
+
+        private Topology(List<ManagedRedisStatus.Shard> shards, List<String> retired, boolean settled) {
+            this.shards = shards;
+            this.retired = retired;
+            this.settled = settled;
+        }
+
+        static Topology waiting() {
+            return new Topology(null, Collections.emptyList(), false);
+        }
+
+        List<ManagedRedisStatus.Shard> getShards() {
+            return shards;
+        }
+
+        /**
+         * StatefulSets of shards beyond spec.size that no longer hold any slot.
+         */
+        List<String> getRetired() {
+            return retired;
+        }
+
+        boolean isSettled() {
+            return settled;
+        }
+    }
+
+    Topology reconcile(ManagedRedis redis, List<StatefulSet> statefulSets, List<Pod> pods) {
+        String namespace = redis.getMetadata().getNamespace();
+        String name = redis.getMetadata().getName();
+        int size = redis.getSpec().getSize();
+
+        List<Member> members = members(statefulSets, pods);
+        Map<Integer, List<Member>> shards = new TreeMap<>();
+        for (Member member : members) {
+            shards.computeIfAbsent(member.shard, shard -> new ArrayList<>()).add(member);
+        }
+        for (int shard = 0; shard < size; shard++) {
+            if (!shards.containsKey(shard)) {
+                // Pods are still starting; readiness events requeue the cluster
+                return Topology.waiting();
+            }
+        }
+        if (members.size() < expectedMembers(statefulSets)) {
+            return Topology.waiting();
+        }
+
+        readViews(members);
+        Member seed = members.get(0);
+        Set<String> memberIds = new HashSet<>();
+        members.forEach(member -> memberIds.add(member.self.id));
+
+        // Join: introduce every node the seed does not know yet, then wait for gossip to spread it
+        boolean met = false;
+        for (Member member : members) {
+            if (!seed.knows(member.self.id)) {
+                log.info("Adding {} to Redis cluster {}/{}", member.pod, namespace, name);
+                call(seed, "CLUSTER", "MEET", member.ip, RedisConfig.REDIS_PORT);
+                met = true;
+            }
+        }
+        if (met || members.stream().anyMatch(member -> !member.knowsAll(memberIds))) {
+            return Topology.waiting();
+        }
+
+        forgetDeparted(seed, members, memberIds);
+
+        boolean settled = true;
+        Map<Integer, Member> primaries = new TreeMap<>();
+        shards.forEach((shard, shardMembers) -> primaries.put(shard, primary(shardMembers)));
+        for (Map.Entry<Integer, List<Member>> shard : shards.entrySet()) {
+            Member primary = primaries.get(shard.getKey());
+            for (Member member : shard.getValue()) {
+                if (member != primary && !primary.self.id.equals(member.self.masterId)) {
+                    if (member.self.slots.cardinality() > 0) {
+                        log.warn("{} holds slots but is not the primary of its shard, leaving it", member.pod);
+                        continue;
+                    }
+                    log.info("Replicating {} from {} in {}/{}", member.pod, primary.pod, namespace, name);
+                    call(member, "CLUSTER", "REPLICATE", primary.self.id);
+                    settled = false;
+                }
+            }
+        }
+
+        // Slot owner per shard; -1 is unassigned, -2 is a node that is no longer one of our pods
+        int[] owner = new int[SLOTS];
+        Arrays.fill(owner, -1);
+        Map<String, Integer> shardById = new HashMap<>();
+        primaries.forEach((shard, primary) -> shardById.put(primary.self.id, shard));
+        for (ClusterNode node : seed.view) {
+            for (int slot = node.slots.nextSetBit(0); slot >= 0; slot = node.slots.nextSetBit(slot + 1)) {
+                owner[slot] = shardById.getOrDefault(node.id, -2);
+            }
+        }
+        for (Map.Entry<Integer, Member> primary : primaries.entrySet()) {
+            // A primary's own view of its slots is authoritative; the seed's may lag behind
+            BitSet slots = primary.getValue().self.slots;
+            for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+                owner[slot] = primary.getKey();
+            }
+        }
+
+        int budget = config.getSlotsPerPass();
+        // Finish slot moves interrupted by an operator restart or a failed pass
+        for (Map.Entry<Integer, Member> primary : primaries.entrySet()) {
+            for (Map.Entry<Integer, String> migrating : primary.getValue().self.migrating.entrySet()) {
+                Integer target = shardById.get(migrating.getValue());
+                if (target != null && budget > 0) {
+                    migrate(migrating.getKey(), primary.getValue(), primaries.get(target));
+                    owner[migrating.getKey()] = target;
+                    budget--;
+                }
+            }
+        }
+
+        Map<Integer, Integer> targets = new LinkedHashMap<>();
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int shard : primaries.keySet()) {
+            targets.put(shard, shard < size ? SLOTS / size + (shard < SLOTS % size ? 1 : 0) : 0);
+            counts.put(shard, 0);
+        }
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (owner[slot] >= 0) {
+                counts.merge(owner[slot], 1, Integer::sum);
+            }
+        }
+
+        // Unassigned slots hold no keys, so they are added directly where they are needed
+        for (int shard : targets.keySet()) {
+            List<String> command = new ArrayList<>(List.of("CLUSTER", "ADDSLOTS"));
+            for (int slot = 0; slot < SLOTS && counts.get(shard) < targets.get(shard); slot++) {
+                if (owner[slot] == -1) {
+                    owner[slot] = shard;
+                    counts.merge(shard, 1, Integer::sum);
+                    command.add(String.valueOf(slot));
+                }
+            }
+            if (command.size() > 2) {
+                log.info("Assigning {} slots to {} in {}/{}", command.size() - 2, primaries.get(shard).pod, namespace, name);
+                call(primaries.get(shard), command.toArray(new String[0]));
+                settled = false;
+            }
+        }
+
+        // Move the excess of each shard, highest slots first, to the shards below their share
+        int moved = 0;
+        for (int donor : targets.keySet()) {
+            for (int slot = SLOTS - 1; slot >= 0 && counts.get(donor) > targets.get(donor) && budget > 0; slot--) {
+                if (owner[slot] != donor) {
+                    continue;
+                }
+                Integer recipient = targets.keySet().stream()
+                        .filter(shard -> counts.get(shard) < targets.get(shard))
+                        .findFirst().orElse(null);
+                if (recipient == null) {
+                    break;
+                }
+                migrate(slot, primaries.get(donor), primaries.get(recipient));
+                owner[slot] = recipient;
+                counts.merge(donor, -1, Integer::sum);
+                counts.merge(recipient, 1, Integer::sum);
+                budget--;
+                moved++;
+            }
+        }
+        if (moved > 0) {
+            log.info("Moved {} slots in {}/{}", moved, namespace, name);
+        }
+        if (!counts.equals(targets)) {
+            settled = false;
+        }
+
+        List<ManagedRedisStatus.Shard> shardStatus = new ArrayList<>();
+        List<String> retired = new ArrayList<>();
+        for (Map.Entry<Integer, Member> primary : primaries.entrySet()) {
+            int shard = primary.getKey();
+            ManagedRedisStatus.Shard status = new ManagedRedisStatus.Shard();
+            status.setName(RedisResourceRenderer.shardName(name, shard));
+            status.setPrimary(primary.getValue().pod);
+            status.setEndpoint(String.format("%s.%s.%s.svc:%s", primary.getValue().pod, name, namespace,
+                    RedisConfig.REDIS_PORT));
+            status.setSlots(ranges(owner, shard));
+            status.setSlotCount(counts.get(shard));
+            shardStatus.add(status);
+            if (shard >= size && counts.get(shard) == 0) {
+                retired.add(status.getName());
+            }
+        }
+        return new Topology(shardStatus, retired, settled);
+    }
+
+    private static List<Member> members(List<StatefulSet> statefulSets, List<Pod> pods) {
+        Map<String, Pod> podsByName = new HashMap<>();
+        for (Pod pod : pods) {
+            podsByName.put(pod.getMetadata().getName(), pod);
+        }
+
+        List<Member> members = new ArrayList<>();
+        for (StatefulSet statefulSet : statefulSets) {
+            String shard = statefulSet.getMetadata().getLabels().get(RedisConfig.SHARD_LABEL);
+            if (shard == null) {
+                continue;
+            }
+            for (int i = 0; i < statefulSet.getSpec().getReplicas(); i++) {
+                Pod pod = podsByName.get(statefulSet.getMetadata().getName() + "-" + i);
+                if (pod != null && StatusCalculator.isPodReady(pod) && pod.getStatus().getPodIP() != null
+                        && pod.getMetadata().getDeletionTimestamp() == null) {
+                    members.add(new Member(Integer.parseInt(shard), i, pod.getMetadata().getName(),
+                            pod.getStatus().getPodIP()));
+                }
+            }
+        }
+        members.sort((a, b) -> a.shard != b.shard ? Integer.compare(a.shard, b.shard) : Integer.compare(a.ordinal, b.ordinal));
+        return members;
+    }
+
+    private static int expectedMembers(List<StatefulSet> statefulSets) {
+        return statefulSets.stream()
+                .filter(statefulSet -> statefulSet.getMetadata().getLabels().containsKey(RedisConfig.SHARD_LABEL))
+                .mapToInt(statefulSet -> statefulSet.getSpec().getReplicas())
+                .sum();
+    }
+
+    private void readViews(List<Member> members) {
+        Map<Member, CompletableFuture<Object>> replies = new HashMap<>();
+        for (Member member : members) {
+            replies.put(member, respClient.send(member.address, "CLUSTER", "NODES"));
+        }
+        for (Member member : members) {
+            member.view = ClusterNode.parse((String) join(member, replies.get(member), "CLUSTER NODES"));
+            member.self = member.view.stream().filter(ClusterNode::isMyself).findFirst()
+                    .orElseThrow(() -> new IllegalStateException("CLUSTER NODES on " + member.pod + " has no myself entry"));
+        }
+    }
+
+    /**
+     * A pod that restarts without its nodes.conf rejoins under a new ID; its old ID, and those of retired
+     * pods, are forgotten on every node once the cluster has marked them failed and they hold no slots.
+     */
+    private void forgetDeparted(Member seed, List<Member> members, Set<String> memberIds) {
+        for (ClusterNode node : seed.view) {
+            if (!memberIds.contains(node.id) && node.isFailed() && node.slots.isEmpty()) {
+                log.info("Forgetting departed Redis cluster node {} ({})", node.id, node.ip);
+                for (Member member : members) {
+                    try {
+                        call(member, "CLUSTER", "FORGET", node.id);
+                    } catch (IllegalStateException e) {
+                        log.debug("{}", e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The shard's node that is a master with slots (possibly a replica promoted by cluster failover),
+     * otherwise pod 0.
+     */
+    private static Member primary(List<Member> shardMembers) {
+        Member primary = null;
+        for (Member member : shardMembers) {
+            if (member.self.isMaster() && member.self.slots.cardinality() > 0
+                    && (primary == null || member.self.slots.cardinality() > primary.self.slots.cardinality())) {
+                primary = member;
+            }
+        }
+        return primary != null ? primary : shardMembers.get(0);
+    }
+
+    /**
+     * Moves one slot with its keys: the standard IMPORTING/MIGRATING handshake, MIGRATE in batches,
+     * then SETSLOT NODE on both sides. Safe to repeat for a slot whose move was interrupted.
+     */
+    private void migrate(int slot, Member source, Member target) {
+        String slotId = String.valueOf(slot);
+        call(target, "CLUSTER", "SETSLOT", slotId, "IMPORTING", source.self.id);
+        call(source, "CLUSTER", "SETSLOT", slotId, "MIGRATING", target.self.id);
+        while (true) {
+            List<?> keys = (List<?>) call(source, "CLUSTER", "GETKEYSINSLOT", slotId,
+                    String.valueOf(config.getMigrateBatch()));
+            if (keys == null || keys.isEmpty()) {
+                break;
+            }
+            List<String> command = new ArrayList<>(List.of("MIGRATE", target.ip, RedisConfig.REDIS_PORT, "", "0",
+                    String.valueOf(config.getMigrateTimeout()), "REPLACE", "KEYS"));
+            keys.forEach(key -> command.add((String) key));
+            call(source, command.toArray(new String[0]));
+        }
+        call(target, "CLUSTER", "SETSLOT", slotId, "NODE", target.self.id);
+        call(source, "CLUSTER", "SETSLOT", slotId, "NODE", target.self.id);
+    }
+
+    private Object call(Member member, String... command) {
+        return join(member, respClient.send(member.address, command), command[0] + " " + command[1]);
+    }
+
+    private static Object join(Member member, CompletableFuture<Object> reply, String command) {
+        try {
+            return reply.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IllegalStateException(command + " on " + member.pod + " failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Slots of a shard as ranges, e.g. "0-5460,10923".
+     */
+    static String ranges(int[] owner, int shard) {
+        StringBuilder ranges = new StringBuilder();
+        for (int slot = 0; slot < owner.length; slot++) {
+            if (owner[slot] != shard) {
+                continue;
+            }
+            int end = slot;
+            while (end + 1 < owner.length && owner[end + 1] == shard) {
+                end++;
+            }
+            if (ranges.length() > 0) {
+                ranges.append(',');
+            }
+            ranges.append(slot == end ? String.valueOf(slot) : slot + "-" + end);
+            slot = end;
+        }
+        return ranges.toString();
+    }
+
+    private static final class Member {
+        private final int shard;
+        private final int ordinal;
+        private final String pod;
+        private final String ip;
+        private final InetSocketAddress address;
+        private List<ClusterNode> view;
+        private ClusterNode self;
+
+        private Member(int shard, int ordinal, String pod, String ip) {
+            this.shard = shard;
+            this.ordinal = ordinal;
+            this.pod = pod;
+            this.ip = ip;
+            this.address = new InetSocketAddress(ip, Integer.parseInt(RedisConfig.REDIS_PORT));
+        }
+
+        private boolean knows(String id) {
+            return view.stream().anyMatch(node -> node.id.equals(id));
+        }
+
+        private boolean knowsAll(Set<String> ids) {
+            return ids.stream().allMatch(this::knows);
+        }
+    }
+
+    /**
+     * One line of CLUSTER NODES: id, address, flags, master id, ping/pong, epoch, link state and slots.
+     */
+    static final class ClusterNode {
+        private final String id;
+        private final String ip;
+        private final Set<String> flags;
+        private final String masterId;
+        private final BitSet slots = new BitSet(SLOTS);
+        // Slot -> target node ID, only listed in a node's own line
+        private final Map<Integer, String> migrating = new TreeMap<>();
+
+        private ClusterNode(String id, String ip, Set<String> flags, String masterId) {
+            this.id = id;
+            this.ip = ip;
+            this.flags = flags;
+            this.masterId = masterId;
+        }
+
+        static List<ClusterNode> parse(String reply) {
+            List<ClusterNode> nodes = new ArrayList<>();
+            for (String line : reply.split("\r?\n")) {
+                String[] fields = line.trim().split(" ");
+                if (fields.length < 8) {
+                    continue;
+                }
+                String address = fields[1];
+                ClusterNode node = new ClusterNode(fields[0],
+                        address.substring(0, Math.max(0, address.lastIndexOf(':'))),
+                        new HashSet<>(Arrays.asList(fields[2].split(","))),
+                        "-".equals(fields[3]) ? null : fields[3]);
+                for (int i = 8; i < fields.length; i++) {
+                    String slot = fields[i];
+                    if (slot.startsWith("[")) {
+                        int arrow = slot.indexOf("->-");
+                        if (arrow > 0) {
+                            node.migrating.put(Integer.parseInt(slot.substring(1, arrow)),
+                                    slot.substring(arrow + 3, slot.length() - 1));
+                        }
+                    } else if (slot.indexOf('-') > 0) {
+                        int dash = slot.indexOf('-');
+                        node.slots.set(Integer.parseInt(slot.substring(0, dash)), Integer.parseInt(slot.substring(dash + 1)) + 1);
+                    } else {
+                        node.slots.set(Integer.parseInt(slot));
+                    }
+                }
+                nodes.add(node);
+            }
+            return nodes;
+        }
+
+        boolean isMyself() {
+            return flags.contains("myself");
+        }
+
+        boolean isMaster() {
+            return flags.contains("master");
+        }
+
+        boolean isFailed() {
+            return flags.contains("fail") || flags.contains("noaddr");
+        }
+    }
+}
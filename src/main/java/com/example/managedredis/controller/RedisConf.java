@@ -0,0 +1,175 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisSpec;
+import io.fabric8.kubernetes.api.model.Quantity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The redis.conf of a ManagedRedis, split into directives Redis accepts at runtime through CONFIG SET and
+ * directives that only take effect on restart. Pure function of the spec and the operator defaults.
+ */
+final class RedisConf {
+    private static final Logger log = LoggerFactory.getLogger(RedisConf.class);
+
+    static final String FILE_NAME = "redis.conf";
+    static final String MOUNT_PATH = "/etc/redis";
+    static final String DATA_PATH = "/data";
+
+    // Set by the operator itself (ports, replication, cluster, files) or unsafe to expose through the spec
+    private static final Set<String> RESERVED = Set.of(
+            "port", "bind", "include", "dir", "dbfilename", "appendfilename", "appenddirname", "logfile", "pidfile",
+            "daemonize", "supervised", "unixsocket", "unixsocketperm", "replicaof", "slaveof", "masterauth",
+            "masteruser", "requirepass", "aclfile", "user", "rename-command", "loadmodule", "protected-mode",
+            "enable-debug-command", "enable-module-command", "enable-protected-configs", "cluster-enabled",
+            "cluster-config-file", "cluster-node-timeout", "cluster-announce-ip", "cluster-port",
+            "cluster-announce-port", "cluster-announce-bus-port", "tls-port", "tls-cert-file", "tls-key-file");
+
+    // Directives Redis accepts through CONFIG SET (as prefixes); anything else needs a restart
+    private static final List<String> RUNTIME_PREFIXES = List.of(
+            "maxmemory", "timeout", "tcp-keepalive", "save", "appendonly", "appendfsync", "hz", "dynamic-hz",
+            "lazyfree-", "slowlog-", "latency-", "notify-keyspace-events", "hash-max-", "list-max-", "set-max-",
+            "zset-max-", "stream-node-max-", "activedefrag", "active-defrag-", "client-output-buffer-limit",
+            "repl-backlog-", "repl-timeout", "repl-diskless-", "min-replicas-", "maxclients", "lua-time-limit",
+            "busy-reply-threshold", "auto-aof-rewrite-", "no-appendfsync-on-rewrite", "stop-writes-on-bgsave-error",
+            "replica-lazy-flush", "replica-serve-stale-data", "proto-max-bulk-len", "loglevel");
+
+    private final Map<String, String> runtime;
+    private final Map<String, String> restart;
+
+    private RedisConf(Map<String, String> runtime, Map<String, String> restart) {
+        this.runtime = Collections.unmodifiableMap(runtime);
+        this.restart = Collections.unmodifiableMap(restart);
+    }
+
+    static RedisConf of(ManagedRedis redis, RedisConfig.Tuning defaults) {
+        ManagedRedisSpec.Configuration configuration = redis.getSpec().getConfiguration();
+        if (configuration == null) {
+            configuration = new ManagedRedisSpec.Configuration();
+        }
+        Map<String, String> directives = new LinkedHashMap<>();
+
+        String maxmemory = configuration.getMaxmemory() != null ? configuration.getMaxmemory()
+                : derivedMaxmemory(redis, configuration.getMaxmemoryHeadroomPercent() != null
+                        ? configuration.getMaxmemoryHeadroomPercent() : defaults.getMaxmemoryHeadroom());
+        if (maxmemory != null) {
+            directives.put("maxmemory", maxmemory);
+            directives.put("maxmemory-policy", configuration.getMaxmemoryPolicy() != null
+                    ? configuration.getMaxmemoryPolicy() : defaults.getMaxmemoryPolicy());
+        }
+        putIfSet(directives, "timeout", configuration.getTimeout());
+        putIfSet(directives, "tcp-keepalive", configuration.getTcpKeepalive());
+        putIfSet(directives, "tcp-backlog", configuration.getTcpBacklog());
+        putIfSet(directives, "io-threads", configuration.getIoThreads());
+        if (configuration.getIoThreadsDoReads() != null) {
+            directives.put("io-threads-do-reads", configuration.getIoThreadsDoReads() ? "yes" : "no");
+        }
+
+        // Without a data volume snapshots only cost forks, so they are off unless asked for
+        ManagedRedisSpec.Persistence persistence = configuration.getPersistence();
+        boolean rdb = persistence != null && persistence.isRdb();
+        boolean aof = persistence != null && persistence.isAof();
+        directives.put("save", rdb ? (persistence.getRdbSchedule() != null
+                ? persistence.getRdbSchedule() : defaults.getRdbSchedule()) : "");
+        directives.put("appendonly", aof ? "yes" : "no");
+        if (aof) {
+            directives.put("appendfsync", persistence.getAppendfsync() != null
+                    ? persistence.getAppendfsync() : defaults.getAppendfsync());
+        }
+
+        if (configuration.getExtra() != null) {
+            // Sorted, so the rendered file and its hash do not depend on map order
+            for (Map.Entry<String, String> entry : new TreeMap<>(configuration.getExtra()).entrySet()) {
+                String directive = entry.getKey().trim().toLowerCase();
+                if (RESERVED.contains(directive) || directive.isEmpty() || directive.contains(" ")
+                        || entry.getValue() == null || entry.getValue().contains("\n")) {
+                    // The CRD rejects these; this only guards against a schema that is out of date
+                    log.debug("Ignoring configuration.extra directive '{}' for {}", entry.getKey(),
+                            ReconcileQueue.keyOf(redis));
+                    continue;
+                }
+                directives.putIfAbsent(directive, entry.getValue());
+            }
+        }
+
+        Map<String, String> runtime = new LinkedHashMap<>();
+        Map<String, String> restart = new LinkedHashMap<>();
+        directives.forEach((directive, value) -> (isRuntime(directive) ? runtime : restart).put(directive, value));
+        return new RedisConf(runtime, restart);
+    }
+
+    static boolean hasDataVolume(ManagedRedis redis) {
+        ManagedRedisSpec.Configuration configuration = redis.getSpec().getConfiguration();
+        return configuration != null && configuration.getPersistence() != null
+                && configuration.getPersistence().getStorageSize() != null;
+    }
+
+    /**
+     * Directives applied to running nodes with CONFIG SET when they change.
+     */
+    Map<String, String> getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * Directives read only at startup; a change rolls the pods.
+     */
+    Map<String, String> getRestart() {
+        return restart;
+    }
+
+    String toFile() {
+        StringBuilder file = new StringBuilder("# Managed by " + RedisConfig.MANAGED_BY + "; edit spec.configuration instead\n");
+        appendTo(file, restart);
+        appendTo(file, runtime);
+        return file.toString();
+    }
+
+    private static void appendTo(StringBuilder file, Map<String, String> directives) {
+        directives.forEach((directive, value) -> file.append(directive).append(' ').append(quote(value)).append('\n'));
+    }
+
+    private static String quote(String value) {
+        if (!value.isEmpty() && !value.contains(" ") && !value.contains("\"")) {
+            return value;
+        }
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static boolean isRuntime(String directive) {
+        for (String prefix : RUNTIME_PREFIXES) {
+            if (directive.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * maxmemory as the memory limit less the headroom Redis needs outside the dataset (fork copy-on-write,
+     * replication and client buffers, fragmentation), so keys are evicted before the pod is OOM-killed.
+     */
+    private static String derivedMaxmemory(ManagedRedis redis, int headroomPercent) {
+        ManagedRedisSpec.Resources resources = redis.getSpec().getResources();
+        if (resources == null || resources.getLimits() == null || resources.getLimits().getMemory() == null) {
+            return null;
+        }
+        long limit = Quantity.getAmountInBytes(new Quantity(resources.getLimits().getMemory())).longValue();
+        return String.valueOf(limit * (100 - Math.max(0, Math.min(90, headroomPercent))) / 100);
+    }
+
+    private static void putIfSet(Map<String, String> directives, String directive, Integer value) {
+        if (value != null) {
+            directives.put(directive, String.valueOf(value));
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.ExecutorFactory;
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisStatus;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Health checks for all registered clusters. Clusters are spread over jittered time buckets; each tick
+ * probes the nodes of one bucket over RESP (PING, INFO replication) without blocking, and re-evaluates
+ * clusters whose pods changed since their last evaluation. A cluster is requeued when a node's
+ * classification (Ready, NotReady, Unreachable, LinkDown, Lagging) differs from its recorded status,
+ * or, for metrics alone, at most once per status-refresh interval.
+ */
+@Component
+public class RedisHealthMonitor {
+    private static final Logger log = LoggerFactory.getLogger(RedisHealthMonitor.class);
+
+    private final RedisConfig redisConfig;
+    private final ReconcileQueue reconcileQueue;
+    private final SharedIndexInformer<ManagedRedis> informer;
+    private final ManagedResourceCache resourceCache;
+    private final ExecutorFactory executorFactory;
+    private final RedisNodeProber prober;
+    private final OperatorMetrics metrics;
+    private final Map<String, TrackedCluster> clusters = new ConcurrentHashMap<>();
+    private final List<Set<String>> buckets = new ArrayList<>();
+    private ScheduledExecutorService healthCheckExecutor;
+    private long tick;
+    // Scheduled start of tick 0 and the tick period, for measuring how late each sweep starts
+    private long firstTickNanos;
+    private long tickNanos;
+
+    public RedisHealthMonitor(RedisConfig redisConfig, ReconcileQueue reconcileQueue,
+                              SharedIndexInformer<ManagedRedis> informer, ManagedResourceCache resourceCache,
+                              ExecutorFactory executorFactory, RedisNodeProber prober, OperatorMetrics metrics) {
+        this.redisConfig = redisConfig;
+        this.reconcileQueue = reconcileQueue;
+        this.informer = informer;
+        this.resourceCache = resourceCache;
+        this.executorFactory = executorFactory;
+        this.prober = prober;
+        this.metrics = metrics;
+        for (int i = 0; i < Math.max(1, redisConfig.getHealthCheck().getBuckets()); i++) {
+            buckets.add(ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        resourceCache.getPodInformer().addEventHandler(new ResourceEventHandler<Pod>() {
+            @Override
+            public void onAdd(Pod pod) {
+                markDirty(pod);
+            }
+
+            @Override
+            public void onUpdate(Pod oldPod, Pod newPod) {
+                if (!Objects.equals(oldPod.getStatus(), newPod.getStatus())) {
+                    markDirty(newPod);
+                }
+            }
+
+            @Override
+            public void onDelete(Pod pod, boolean deletedFinalStateUnknown) {
+                markDirty(pod);
+            }
+        });
+
+        RedisConfig.HealthCheck config = redisConfig.getHealthCheck();
+        long tickMillis = Math.max(1, TimeUnit.SECONDS.toMillis(config.getPeriod()) / buckets.size());
+        healthCheckExecutor = executorFactory.newScheduledPool("health-check", config.getThreadPoolSize());
+        metrics.gauge("managedredis.health.tracked.clusters", "Clusters tracked by the health monitor",
+                clusters, Map::size);
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        firstTickNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getInitialDelay());
+        healthCheckExecutor.scheduleAtFixedRate(this::sweep,
+                TimeUnit.SECONDS.toMillis(config.getInitialDelay()), tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts tracking a cluster. Safe to call on every reconcile.
+     */
+    public void register(String key) {
+        clusters.computeIfAbsent(key, k -> {
+            // Random bucket so clusters registered together are not checked together
+            int bucket = ThreadLocalRandom.current().nextInt(buckets.size());
+            buckets.get(bucket).add(k);
+            return new TrackedCluster(bucket);
+        });
+    }
+
+    public void unregister(String key) {
+        TrackedCluster cluster = clusters.remove(key);
+        if (cluster != null) {
+            buckets.get(cluster.bucket).remove(key);
+        }
+    }
+
+    public int getTrackedClusterCount() {
+        return clusters.size();
+    }
+
+    /**
+     * Latest probe per pod name for a cluster; empty until its bucket has been probed once.
+     */
+    Map<String, NodeProbe> getProbes(String key) {
+        TrackedCluster cluster = clusters.get(key);
+        return cluster == null ? Collections.emptyMap() : cluster.probes;
+    }
+
+    private void markDirty(Pod pod) {
+        Map<String, String> labels = pod.getMetadata().getLabels();
+        String app = labels == null ? null : labels.get(RedisConfig.APP_LABEL);
+        if (app == null) {
+            return;
+        }
+        TrackedCluster cluster = clusters.get(Cache.namespaceKeyFunc(pod.getMetadata().getNamespace(), app));
+        if (cluster != null) {
+            cluster.dirty = true;
+        }
+    }
+
+    private void sweep() {
+        metrics.recordHealthTickLag(System.nanoTime() - (firstTickNanos + tick * tickNanos));
+        try {
+            Set<String> bucket = buckets.get((int) (tick++ % buckets.size()));
+            boolean probe = redisConfig.getHealthCheck().isProbeEnabled();
+            for (String key : bucket) {
+                TrackedCluster cluster = clusters.get(key);
+                if (cluster == null) {
+                    continue;
+                }
+                if (probe) {
+                    probeCluster(key, cluster);
+                } else if (cluster.dirty) {
+                    cluster.dirty = false;
+                    checkHealth(key, cluster);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to check Redis health", e);
+        }
+    }
+
+    private void probeCluster(String key, TrackedCluster cluster) {
+        if (!cluster.probing.compareAndSet(false, true)) {
+            // The previous probe of this cluster has not finished yet
+            return;
+        }
+        cluster.dirty = false;
+
+        String[] parts = key.split("/", 2);
+        Map<String, CompletableFuture<NodeProbe>> pending = new HashMap<>();
+        for (Pod pod : resourceCache.getPods(parts[0], parts[1])) {
+            String podIP = pod.getStatus() == null ? null : pod.getStatus().getPodIP();
+            if (podIP != null && pod.getMetadata().getDeletionTimestamp() == null) {
+                pending.put(pod.getMetadata().getName(), prober.probe(podIP));
+            }
+        }
+
+        CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0]))
+                .whenCompleteAsync((ignored, error) -> {
+                    try {
+                        Map<String, NodeProbe> probes = new HashMap<>();
+                        pending.forEach((podName, future) -> probes.put(podName, future.join()));
+                        cluster.probes = probes;
+                        checkHealth(key, cluster);
+                    } catch (Exception e) {
+                        log.error("Failed to evaluate probes for {}", key, e);
+                    } finally {
+                        cluster.probing.set(false);
+                    }
+                }, healthCheckExecutor);
+    }
+
+    private void checkHealth(String key, TrackedCluster cluster) {
+        ManagedRedis redis = informer.getStore().getByKey(key);
+        if (redis == null || redis.getStatus() == null) {
+            return;
+        }
+
+        RedisConfig.HealthCheck config = redisConfig.getHealthCheck();
+        String namespace = redis.getMetadata().getNamespace();
+        String name = redis.getMetadata().getName();
+        List<ManagedRedisStatus.Node> nodes = StatusCalculator.calculate(redis,
+                resourceCache.getStatefulSets(namespace, name),
+                resourceCache.getPods(namespace, name),
+                redis.getStatus().getPhase(),
+                cluster.probes,
+                config.getMaxReplicationLag(),
+                redis.getStatus().getShards()).getNodes();
+
+        // Node health drifted from the recorded status; let the reconciler write it
+        long now = System.nanoTime();
+        if (!StatusCalculator.classify(nodes).equals(StatusCalculator.classify(redis.getStatus().getNodes()))) {
+            log.debug("Node health changed for {}, requeueing", key);
+            cluster.lastRefreshNanos = now;
+            reconcileQueue.add(key);
+        } else if (!nodes.equals(redis.getStatus().getNodes())
+                && now - cluster.lastRefreshNanos > TimeUnit.SECONDS.toNanos(config.getStatusRefresh())) {
+            // Only latency/offset figures moved; refresh them at a bounded rate
+            cluster.lastRefreshNanos = now;
+            reconcileQueue.add(key);
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        if (healthCheckExecutor != null) {
+            healthCheckExecutor.shutdown();
+            try {
+                if (!healthCheckExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    healthCheckExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                healthCheckExecutor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class TrackedCluster {
+        private final int bucket;
+        private final AtomicBoolean probing = new AtomicBoolean();
+        private volatile boolean dirty = true;
+        private volatile Map<String, NodeProbe> probes = Collections.emptyMap();
+        private volatile long lastRefreshNanos = System.nanoTime();
+
+        private TrackedCluster(int bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Probes Redis nodes over RESP. PING and INFO replication are pipelined on the node's pooled connection.
+ */
+@Component
+public class RedisNodeProber {
+
+    private final RespClient respClient;
+
+    public RedisNodeProber(RespClient respClient) {
+        this.respClient = respClient;
+    }
+
+    CompletableFuture<NodeProbe> probe(String host) {
+        InetSocketAddress address = new InetSocketAddress(host, Integer.parseInt(RedisConfig.REDIS_PORT));
+        long start = System.nanoTime();
+        CompletableFuture<Long> ping = respClient.send(address, "PING").thenApply(reply -> System.nanoTime() - start);
+        CompletableFuture<Object> info = respClient.send(address, "INFO", "replication");
+
+        return ping.thenCombine(info, (latency, reply) -> NodeProbe.of(latency, (String) reply))
+                .exceptionally(error -> NodeProbe.unreachable(String.valueOf(
+                        error.getCause() != null ? error.getCause().getMessage() : error.getMessage())));
+    }
+}
@@ -1,535 +1,556 @@
 package com.example.managedredis.controller;
 
+import com.example.managedredis.config.ExecutorFactory;
 import com.example.managedredis.config.RedisConfig;
 import com.example.managedredis.model.ManagedRedis;
 import com.example.managedredis.model.ManagedRedisStatus;
 import io.fabric8.kubernetes.api.model.*;
 import io.fabric8.kubernetes.api.model.apps.*;
-import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.Executors;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 public class RedisOperator {
     private static final Logger log = LoggerFactory.getLogger(RedisOperator.class);
 
-    private final KubernetesClient kubernetesClient;
     private final SharedIndexInformer<ManagedRedis> informer;
     private final RedisConfig redisConfig;
-    private ScheduledExecutorService healthCheckExecutor;
-
-    public RedisOperator(KubernetesClient kubernetesClient, RedisConfig redisConfig) {
-        this.kubernetesClient = kubernetesClient;
+    private final ReconcileQueue reconcileQueue;
+    private final ManagedResourceCache resourceCache;
+    private final RedisHealthMonitor healthMonitor;
+    private final StatusAggregator statusAggregator;
+    private final RedisResourceRenderer renderer;
+    private final ResourceApplier resourceApplier;
+    private final RedisClusterManager clusterManager;
+    private final FailoverController failoverController;
+    private final RuntimeConfigApplier runtimeConfigApplier;
+    private final UpgradeOrchestrator upgradeOrchestrator;
+    private final ShardCoordinator coordinator;
+    private final ExecutorFactory executorFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OperatorMetrics metrics;
+    private final Set<String> knownClusters = ConcurrentHashMap.newKeySet();
+    // Clusters whose time to first Running has been recorded
+    private final Set<String> reachedRunning = ConcurrentHashMap.newKeySet();
+    private final long startNanos = System.nanoTime();
+    // Set once the caches have synced; until then informer events are left to the initial comparison
+    private volatile boolean started;
+    private volatile InitialSync initialSync;
+    private ExecutorService reconcileExecutor;
+    private ScheduledExecutorService syncExecutor;
+    private ExecutorService compareExecutor;
+
+    public RedisOperator(RedisConfig redisConfig, ReconcileQueue reconcileQueue,
+                         SharedIndexInformer<ManagedRedis> informer, ManagedResourceCache resourceCache,
+                         RedisHealthMonitor healthMonitor, StatusAggregator statusAggregator,
+                         RedisResourceRenderer renderer, ResourceApplier resourceApplier,
+                         RedisClusterManager clusterManager, FailoverController failoverController,
+                         RuntimeConfigApplier runtimeConfigApplier, UpgradeOrchestrator upgradeOrchestrator,
+                         ShardCoordinator coordinator,
+                         ExecutorFactory executorFactory, ApplicationEventPublisher eventPublisher,
+                         OperatorMetrics metrics) {
         this.redisConfig = redisConfig;
-        this.informer = kubernetesClient.resources(ManagedRedis.class).inAnyNamespace().inform();
+        this.reconcileQueue = reconcileQueue;
+        this.informer = informer;
+        this.resourceCache = resourceCache;
+        this.healthMonitor = healthMonitor;
+        this.statusAggregator = statusAggregator;
+        this.renderer = renderer;
+        this.resourceApplier = resourceApplier;
+        this.clusterManager = clusterManager;
+        this.failoverController = failoverController;
+        this.runtimeConfigApplier = runtimeConfigApplier;
+        this.upgradeOrchestrator = upgradeOrchestrator;
+        this.coordinator = coordinator;
+        this.executorFactory = executorFactory;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
     }
 
     @PostConstruct
     public void initialize() {
-        healthCheckExecutor = Executors.newScheduledThreadPool(redisConfig.getHealthCheck().getThreadPoolSize());
-        
+        statusAggregator.setListener(this::statusWritten);
+
+        int workers = executorFactory.workerCount(redisConfig.getReconcile().getWorkers());
+        reconcileExecutor = executorFactory.newWorkerPool("reconcile-worker", workers);
+        for (int i = 0; i < workers; i++) {
+            reconcileExecutor.submit(this::runWorker);
+        }
+
+        syncExecutor = executorFactory.newScheduledPool("initial-sync", 1);
+        compareExecutor = executorFactory.newTaskExecutor("initial-sync-compare",
+                Runtime.getRuntime().availableProcessors());
+
+        // Pick up the clusters this instance now owns after a leader or shard membership change,
+        // reconciling only those that differ from their rendered state
+        coordinator.addOwnershipListener(() -> {
+            if (started) {
+                syncExecutor.execute(this::compareAll);
+            }
+        });
+
+        // Informer callbacks only enqueue keys; reconciliation happens on the worker pool
         informer.addEventHandler(new ResourceEventHandler<ManagedRedis>() {
             @Override
             public void onAdd(ManagedRedis redis) {
-                try {
-                    redis.getStatus().setPhase("Creating");
-                    createRedisCluster(redis);
-                    monitorRedisHealth(redis);
-                } catch (Exception e) {
-                    log.error("Failed to handle Redis cluster creation", e);
-                    updateStatus(redis, "Failed");
+                // The replay of existing resources on startup is covered by the initial comparison
+                if (started) {
+                    reconcileQueue.add(ReconcileQueue.keyOf(redis));
                 }
             }
 
             @Override
             public void onUpdate(ManagedRedis oldRedis, ManagedRedis newRedis) {
-                try {
-                    updateRedisCluster(oldRedis, newRedis);
-                } catch (Exception e) {
-                    log.error("Failed to handle Redis cluster update", e);
-                    updateStatus(newRedis, "Failed");
+                if (started) {
+                    reconcileQueue.add(ReconcileQueue.keyOf(newRedis));
                 }
             }
 
             @Override
             public void onDelete(ManagedRedis redis, boolean deletedFinalStateUnknown) {
-                try {
-                    deleteRedisCluster(redis);
-                } catch (Exception e) {
-                    log.error("Failed to handle Redis cluster deletion", e);
+                if (started) {
+                    reconcileQueue.add(ReconcileQueue.keyOf(redis));
                 }
             }
         });
+        syncExecutor.execute(this::awaitInitialSync);
     }
 
-    private void createRedisCluster(ManagedRedis redis) {
-        String namespace = redis.getMetadata().getNamespace();
-        String name = redis.getMetadata().getName();
-        log.info("Creating Redis cluster: {}/{}", namespace, name);
-
-        try {
-            // Initial status update
-            updateStatus(redis, "Creating");
+    /**
+     * Outcome of the startup comparison, for the readiness check.
+     */
+    public static final class InitialSync {
+        private final int clusters;
+        private final int drifted;
+        private final long millis;
+
+        private InitialSync(int clusters, int drifted, long millis) {
+            this.clusters = clusters;
+            this.drifted = drifted;
+            this.millis = millis;
+        }
 
-            // Create StatefulSet
-            createRedisStatefulSet(redis);
+        public int getClusters() {
+            return clusters;
+        }
 
-            // Create Services
-            createRedisServices(redis);
+        public int getDrifted() {
+            return drifted;
+        }
 
-            // Final status update
-            updateStatus(redis, "Running");
-        } catch (Exception e) {
-            log.error("Failed to create Redis cluster: {}/{}", namespace, name, e);
-            try {
-                updateStatus(redis, "Failed");
-            } catch (Exception statusError) {
-                log.error("Failed to update status for {}/{}", namespace, name, statusError);
-            }
+        public long getMillis() {
+            return millis;
         }
     }
 
-    private void createRedisStatefulSet(ManagedRedis redis) {
-        String namespace = redis.getMetadata().getNamespace();
-        String name = redis.getMetadata().getName();
-
-        Map<String, String> labels = new HashMap<>();
-        labels.put(RedisConfig.APP_LABEL, name);
-        labels.put(RedisConfig.MANAGED_BY_LABEL, RedisConfig.MANAGED_BY);
-
-        // Create container template
-        Container container = new ContainerBuilder()
-                .withName("redis")
-                .withImage(String.format(RedisConfig.REDIS_IMAGE, redis.getSpec().getVersion()))
-                .withPorts(new ContainerPortBuilder()
-                        .withContainerPort(Integer.parseInt(RedisConfig.REDIS_PORT))
-                        .withName("redis")
-                        .build())
-                .withCommand("/bin/sh", "-c")
-                .withArgs("if [ \"${HOSTNAME##*-}\" != \"0\" ]; then " +
-                        "redis-server --port " + RedisConfig.REDIS_PORT + 
-                        " --slaveof " + name + "-0." + name + " " + RedisConfig.REDIS_PORT + "; " +
-                        "else " +
-                        "redis-server --port " + RedisConfig.REDIS_PORT + "; " +
-                        "fi")
-                .withResources(new ResourceRequirementsBuilder()
-                        .withRequests(Map.of(
-                            "cpu", new Quantity(redis.getSpec().getResources().getRequests().getCpu()),
-                            "memory", new Quantity(redis.getSpec().getResources().getRequests().getMemory())
-                        ))
-                        .withLimits(Map.of(
-                            "cpu", new Quantity(redis.getSpec().getResources().getLimits().getCpu()),
-                            "memory", new Quantity(redis.getSpec().getResources().getLimits().getMemory())
-                        ))
-                        .build())
-                .withLivenessProbe(new ProbeBuilder()
-                        .withNewExec()
-                            .withCommand("redis-cli", "ping")
-                        .endExec()
-                        .withInitialDelaySeconds(30)
-                        .withPeriodSeconds(10)
-                        .build())
-                .withReadinessProbe(new ProbeBuilder()
-                        .withNewExec()
-                            .withCommand("redis-cli", "ping")
-                        .endExec()
-                        .withInitialDelaySeconds(5)
-                        .withPeriodSeconds(5)
-                        .build())
-                .build();
-
-        // Create StatefulSet
-        StatefulSet statefulSet = new StatefulSetBuilder()
-                .withNewMetadata()
-                    .withName(name)
-                    .withNamespace(namespace)
-                    .withLabels(labels)
-                    .withOwnerReferences(createOwnerReference(redis))
-                .endMetadata()
-                .withNewSpec()
-                    .withReplicas(redis.getSpec().getReplicas())
-                    .withServiceName(name)
-                    .withNewSelector()
-                        .withMatchLabels(labels)
-                    .endSelector()
-                    .withNewTemplate()
-                        .withNewMetadata()
-                            .withLabels(labels)
-                        .endMetadata()
-                        .withNewSpec()
-                            .withContainers(container)
-                        .endSpec()
-                    .endTemplate()
-                .endSpec()
-                .build();
-
-        // Create or update StatefulSet
-        kubernetesClient.apps().statefulSets()
-                .inNamespace(namespace)
-                .resource(statefulSet)
-                .createOrReplace();
-
-        // Wait for StatefulSet to be ready
-        kubernetesClient.apps().statefulSets()
-                .inNamespace(namespace)
-                .withName(name)
-                .waitUntilReady(5, TimeUnit.MINUTES);
+    /**
+     * Null until every cached ManagedRedis has been compared after startup.
+     */
+    public InitialSync getInitialSync() {
+        return initialSync;
     }
 
-    private void createRedisServices(ManagedRedis redis) {
-        String namespace = redis.getMetadata().getNamespace();
-        String name = redis.getMetadata().getName();
+    /**
+     * Polls until the ManagedRedis and child caches hold a full list, then runs the initial comparison.
+     */
+    private void awaitInitialSync() {
+        if (!informer.hasSynced() || !resourceCache.hasSynced()) {
+            syncExecutor.schedule(this::awaitInitialSync, 100, TimeUnit.MILLISECONDS);
+            return;
+        }
+        // Events from here on requeue as usual; anything earlier is already in the caches compared below
+        started = true;
+        resourceCache.startRequeueing();
+        int[] counts = compareAll();
+        long nanos = System.nanoTime() - startNanos;
+        metrics.recordInitialSync(nanos, counts[0] - counts[1], counts[1]);
+        initialSync = new InitialSync(counts[0], counts[1], TimeUnit.NANOSECONDS.toMillis(nanos));
+        log.info("Initial sync done in {} ms: {} clusters, {} to reconcile", initialSync.getMillis(),
+                counts[0], counts[1]);
+    }
 
-        // Headless service for StatefulSet
-        Service headlessService = new ServiceBuilder()
-                .withNewMetadata()
-                    .withName(name)
-                    .withNamespace(namespace)
-                    .withOwnerReferences(createOwnerReference(redis))
-                .endMetadata()
-                .withNewSpec()
-                    .withClusterIP("None")
-                    .withSelector(Map.of(RedisConfig.APP_LABEL, name))
-                    .withPorts(new ServicePortBuilder()
-                            .withPort(Integer.parseInt(RedisConfig.REDIS_PORT))
-                            .withName("redis")
-                            .build())
-                .endSpec()
-                .build();
-
-        kubernetesClient.services()
-                .inNamespace(namespace)
-                .resource(headlessService)
-                .createOrReplace();
-
-        // Primary Service (for the first pod)
-        Service primaryService = new ServiceBuilder()
-                .withNewMetadata()
-                    .withName(name + "-primary")
-                    .withNamespace(namespace)
-                    .withOwnerReferences(createOwnerReference(redis))
-                .endMetadata()
-                .withNewSpec()
-                    .withSelector(Map.of(
-                        RedisConfig.APP_LABEL, name,
-                        "statefulset.kubernetes.io/pod-name", name + "-0"
-                    ))
-                    .withPorts(new ServicePortBuilder()
-                            .withPort(Integer.parseInt(RedisConfig.REDIS_PORT))
-                            .withName("redis")
-                            .build())
-                .endSpec()
-                .build();
-
-        kubernetesClient.services()
-                .inNamespace(namespace)
-                .resource(primaryService)
-                .createOrReplace();
-
-        // Reader Service (for replicas)
-        if (redis.getSpec().getReplicas() > 1) {
-            Service readerService = new ServiceBuilder()
-                    .withNewMetadata()
-                        .withName(name + "-reader")
-                        .withNamespace(namespace)
-                        .withOwnerReferences(createOwnerReference(redis))
-                    .endMetadata()
-                    .withNewSpec()
-                        .withSelector(Map.of(
-                            RedisConfig.APP_LABEL, name
-                        ))
-                        .withPorts(new ServicePortBuilder()
-                                .withPort(Integer.parseInt(RedisConfig.REDIS_PORT))
-                                .withName("redis")
-                                .build())
-                    .endSpec()
-                    .build();
-
-            kubernetesClient.services()
-                    .inNamespace(namespace)
-                    .resource(readerService)
-                    .createOrReplace();
+    /**
+     * Compares every owned ManagedRedis with its rendered state in parallel, from the caches alone.
+     * Only the ones that differ are queued; converged ones are just handed to the health monitor and the
+     * failover controller, and their next reconcile comes from a change. Clusters no longer owned are released.
+     * Returns {owned, queued}.
+     */
+    private int[] compareAll() {
+        List<String> keys = informer.getStore().listKeys();
+        int batches = Math.max(1, Math.min(keys.size(), Runtime.getRuntime().availableProcessors() * 4));
+        AtomicInteger owned = new AtomicInteger();
+        AtomicInteger drifted = new AtomicInteger();
+        List<CompletableFuture<Void>> comparisons = new ArrayList<>();
+        for (int batch = 0; batch < batches; batch++) {
+            List<String> slice = keys.subList(batch * keys.size() / batches, (batch + 1) * keys.size() / batches);
+            comparisons.add(CompletableFuture.runAsync(() -> {
+                for (String key : slice) {
+                    ManagedRedis redis = informer.getStore().getByKey(key);
+                    if (redis == null) {
+                        continue;
+                    }
+                    if (!coordinator.owns(key)) {
+                        // Moved to another instance: stop probing and failing it over here, as reconcile() would
+                        healthMonitor.unregister(key);
+                        failoverController.unregister(key);
+                        knownClusters.remove(key);
+                        continue;
+                    }
+                    owned.incrementAndGet();
+                    if (isConverged(redis)) {
+                        knownClusters.add(key);
+                        healthMonitor.register(key);
+                        failoverController.register(key);
+                    } else {
+                        drifted.incrementAndGet();
+                        reconcileQueue.add(key);
+                    }
+                }
+            }, compareExecutor));
         }
+        CompletableFuture.allOf(comparisons.toArray(new CompletableFuture[0])).join();
+        return new int[]{owned.get(), drifted.get()};
     }
 
-    private void updateStatus(ManagedRedis redis, String phase) {
+    /**
+     * True if the status records the current spec as applied and Running and no child differs from its
+     * rendering: what a reconcile would find, without its status refresh or API calls.
+     */
+    private boolean isConverged(ManagedRedis redis) {
+        ManagedRedisStatus status = redis.getStatus();
+        if (status == null || !"Running".equals(status.getPhase())
+                || !Objects.equals(redis.getMetadata().getGeneration(), status.getObservedGeneration())) {
+            return false;
+        }
         String namespace = redis.getMetadata().getNamespace();
         String name = redis.getMetadata().getName();
-
         try {
-            // Get the latest version of the resource
-            ManagedRedis latestRedis = kubernetesClient.resources(ManagedRedis.class)
-                    .inNamespace(namespace)
-                    .withName(name)
-                    .get();
-
-            if (latestRedis == null) {
-                log.warn("ManagedRedis {}/{} not found", namespace, name);
-                return;
+            DesiredState desired = renderer.render(redis, failoverController.currentPrimary(redis));
+            if (!desired.getSpecHash().equals(status.getSpecHash())) {
+                return false;
             }
-
-            // Check if status is already up to date
-            if (phase.equals(latestRedis.getStatus().getPhase())) {
-                log.debug("Status already up to date for {}/{}: {}", namespace, name, phase);
-                return;
+            for (ConfigMap configMap : desired.getConfigMaps()) {
+                if (resourceApplier.needsApply(configMap,
+                        resourceCache.getConfigMap(namespace, configMap.getMetadata().getName()))) {
+                    return false;
+                }
             }
-
-            // Check StatefulSet status
-            StatefulSet statefulSet = kubernetesClient.apps().statefulSets()
-                    .inNamespace(namespace)
-                    .withName(name)
-                    .get();
-
-            if (statefulSet != null) {
-                StatefulSetStatus status = statefulSet.getStatus();
-                if (status != null) {
-                    Integer replicas = status.getReplicas();
-                    Integer readyReplicas = status.getReadyReplicas();
-                    
-                    if (replicas != null && readyReplicas != null) {
-                        if (readyReplicas.equals(replicas)) {
-                            phase = "Running";
-                        } else if ("Running".equals(phase)) {
-                            phase = "Creating";
-                        }
-                    }
+            // Also catches a partitioned rollout in progress and cluster shards left to retire
+            if (resourceCache.getStatefulSets(namespace, name).size() != desired.getStatefulSets().size()) {
+                return false;
+            }
+            for (StatefulSet statefulSet : desired.getStatefulSets()) {
+                if (resourceApplier.needsApply(statefulSet,
+                        resourceCache.getStatefulSet(namespace, statefulSet.getMetadata().getName()))) {
+                    return false;
+                }
+            }
+            for (Service service : desired.getServices()) {
+                if (resourceApplier.needsApply(service, resourceCache.getService(namespace, service.getMetadata().getName()))) {
+                    return false;
                 }
             }
+            return redis.getSpec().getReplicas() > 1 || resourceCache.getService(namespace, name + "-reader") == null;
+        } catch (RuntimeException e) {
+            // A spec that fails to render is left to the reconciler to report
+            return false;
+        }
+    }
 
-            // Update phase
-            latestRedis.getStatus().setPhase(phase);
+    private void runWorker() {
+        while (!Thread.currentThread().isInterrupted()) {
+            String key;
+            try {
+                key = reconcileQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (key == null) {
+                return;
+            }
 
-            // Update endpoints
-            latestRedis.getStatus().setPrimaryEndpoint(
-                    String.format("%s-primary.%s.svc:%s", name, namespace, RedisConfig.REDIS_PORT));
-            
-            if (redis.getSpec().getReplicas() > 1) {
-                latestRedis.getStatus().setReaderEndpoint(
-                        String.format("%s-reader.%s.svc:%s", name, namespace, RedisConfig.REDIS_PORT));
+            long start = System.nanoTime();
+            try {
+                reconcile(key);
+                reconcileQueue.forget(key);
+                metrics.recordReconcile("success", System.nanoTime() - start);
+            } catch (Exception e) {
+                metrics.recordReconcile("error", System.nanoTime() - start);
+                log.error("Failed to reconcile Redis cluster {}, retry {}", key,
+                        reconcileQueue.getFailures(key) + 1, e);
+                metrics.reconcileRetried();
+                reconcileQueue.addRateLimited(key);
+            } finally {
+                reconcileQueue.done(key);
             }
+        }
+    }
 
-            // Update node status
-            List<ManagedRedisStatus.Node> nodes = new ArrayList<>();
-            
-            // Check primary node
-            String primaryPodName = name + "-0";
-            Pod primaryPod = kubernetesClient.pods()
-                    .inNamespace(namespace)
-                    .withName(primaryPodName)
-                    .get();
-            
-            if (primaryPod != null) {
-                ManagedRedisStatus.Node primaryNode = new ManagedRedisStatus.Node();
-                primaryNode.setName(primaryPodName);
-                primaryNode.setRole(RedisConfig.PRIMARY_ROLE);
-                primaryNode.setStatus(isPodReady(primaryPod) ? "Ready" : "NotReady");
-                primaryNode.setEndpoint(String.format("%s.%s.pod:%s", 
-                        primaryPodName, namespace, RedisConfig.REDIS_PORT));
-                nodes.add(primaryNode);
+    private void reconcile(String key) {
+        ManagedRedis redis = informer.getStore().getByKey(key);
+        if (redis == null) {
+            healthMonitor.unregister(key);
+            failoverController.forget(key);
+            runtimeConfigApplier.forget(key);
+            upgradeOrchestrator.forget(key);
+            reachedRunning.remove(key);
+            renderer.forget(key);
+            statusAggregator.forget(key);
+            if (knownClusters.remove(key)) {
+                String[] parts = key.split("/", 2);
+                deleteRedisCluster(parts[0], parts[1]);
             }
+            return;
+        }
+        if (!coordinator.owns(key)) {
+            // Another operator instance reconciles this cluster
+            healthMonitor.unregister(key);
+            failoverController.unregister(key);
+            knownClusters.remove(key);
+            return;
+        }
+        knownClusters.add(key);
+        healthMonitor.register(key);
+        failoverController.register(key);
 
-            // Check replica nodes
-            for (int i = 1; i < redis.getSpec().getReplicas(); i++) {
-                String replicaPodName = name + "-" + i;
-                Pod replicaPod = kubernetesClient.pods()
-                        .inNamespace(namespace)
-                        .withName(replicaPodName)
-                        .get();
-                
-                if (replicaPod != null) {
-                    ManagedRedisStatus.Node replicaNode = new ManagedRedisStatus.Node();
-                    replicaNode.setName(replicaPodName);
-                    replicaNode.setRole(RedisConfig.REPLICA_ROLE);
-                    replicaNode.setStatus(isPodReady(replicaPod) ? "Ready" : "NotReady");
-                    replicaNode.setEndpoint(String.format("%s.%s.pod:%s", 
-                            replicaPodName, namespace, RedisConfig.REDIS_PORT));
-                    nodes.add(replicaNode);
-                }
+        String namespace = redis.getMetadata().getNamespace();
+        String name = redis.getMetadata().getName();
+        Long generation = redis.getMetadata().getGeneration();
+        DesiredState desired = renderer.render(redis, failoverController.currentPrimary(redis));
+        String specHash = desired.getSpecHash();
+        // Includes a status submitted by an earlier reconcile that is still waiting for its write window
+        ManagedRedisStatus status = statusAggregator.latest(redis);
+
+        if (status != null && Objects.equals(generation, status.getObservedGeneration())
+                && specHash.equals(status.getSpecHash())) {
+            // Spec already applied (e.g. our own status write, a pod event or an operator restart):
+            // repair children that drifted from it (no API call unless one differs from the cache),
+            // then refresh the status, which writes nothing if it is unchanged
+            log.debug("Spec unchanged for {}/{} (generation {}), checking drift only", namespace, name, generation);
+            if (resourceCache.hasSynced()) {
+                metrics.timeStage("drift", () -> applyConfigMaps(redis, desired) | applyStatefulSets(redis, desired)
+                        | applyServices(redis, desired));
+                failoverController.repointReplicas(redis);
+                runtimeConfigApplier.apply(redis, desired.getConf(), resourceCache.getPods(namespace, name));
             }
+            List<ManagedRedisStatus.Shard> shards = metrics.timeStage("cluster", () -> reconcileCluster(redis));
+            metrics.timeStage("status", () -> updateStatus(redis, status.getPhase(), null, null, shards));
+            return;
+        }
 
-            latestRedis.getStatus().setNodes(nodes);
-
-            // Update status with retries
-            int maxRetries = 3;
-            int retryCount = 0;
-            while (retryCount < maxRetries) {
-                try {
-                    // Get the latest resource version before update
-                    ManagedRedis currentRedis = kubernetesClient.resources(ManagedRedis.class)
-                            .inNamespace(namespace)
-                            .withName(name)
-                            .get();
-                    
-                    if (currentRedis == null) {
-                        log.warn("ManagedRedis {}/{} not found during update", namespace, name);
-                        return;
-                    }
+        try {
+            log.info("{} Redis cluster: {}/{}", resourceCache.getStatefulSets(namespace, name).isEmpty()
+                    ? "Creating" : "Updating", namespace, name);
+            // The pods mount redis.conf, so it goes first
+            metrics.timeStage("configmap", () -> applyConfigMaps(redis, desired));
+            metrics.timeStage("statefulset", () -> applyStatefulSets(redis, desired));
+            publishStage(redis, ReconcileStageEvent.Stage.STATEFULSET_APPLIED, null);
+            metrics.timeStage("services", () -> applyServices(redis, desired));
+            publishStage(redis, ReconcileStageEvent.Stage.SERVICES_APPLIED, null);
+            runtimeConfigApplier.apply(redis, desired.getConf(), resourceCache.getPods(namespace, name));
+            // The phase moves to Running when ManagedResourceCache sees the pods become ready
+        } catch (RuntimeException e) {
+            publishStage(redis, ReconcileStageEvent.Stage.FAILED, e.getMessage());
+            markFailed(redis);
+            throw e;
+        }
 
-                    // Copy the status to the latest version
-                    currentRedis.setStatus(latestRedis.getStatus());
-                    
-                    kubernetesClient.resources(ManagedRedis.class)
-                            .inNamespace(namespace)
-                            .withName(name)
-                            .updateStatus(currentRedis);
-                    log.info("Successfully updated status for {}/{} to {}", namespace, name, phase);
-                    break;
-                } catch (Exception e) {
-                    if (retryCount == maxRetries - 1) {
-                        throw e;
-                    }
-                    retryCount++;
-                    log.warn("Failed to update status, retrying ({}/{})", retryCount, maxRetries);
-                    Thread.sleep(1000L * retryCount); // Exponential backoff
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to update status for {}/{}", namespace, name, e);
+        List<ManagedRedisStatus.Shard> shards = metrics.timeStage("cluster", () -> reconcileCluster(redis));
+        metrics.timeStage("status", () -> updateStatus(redis, "Creating", generation, specHash, shards));
+    }
+
+    private boolean applyConfigMaps(ManagedRedis redis, DesiredState desired) {
+        boolean changed = false;
+        for (ConfigMap configMap : desired.getConfigMaps()) {
+            changed |= resourceApplier.apply(configMap, resourceCache.getConfigMap(
+                    redis.getMetadata().getNamespace(), configMap.getMetadata().getName()));
         }
+        return changed;
     }
 
-    private boolean isPodReady(Pod pod) {
-        if (pod.getStatus() == null || pod.getStatus().getConditions() == null) {
-            return false;
+    private boolean applyStatefulSets(ManagedRedis redis, DesiredState desired) {
+        boolean changed = false;
+        for (StatefulSet statefulSet : desired.getStatefulSets()) {
+            StatefulSet live = resourceCache.getStatefulSet(redis.getMetadata().getNamespace(),
+                    statefulSet.getMetadata().getName());
+            // A new pod template is rolled out replica first rather than all at once
+            changed |= resourceApplier.apply(upgradeOrchestrator.plan(redis, statefulSet, live), live);
         }
+        return changed;
+    }
 
-        return pod.getStatus().getConditions().stream()
-                .filter(condition -> "Ready".equals(condition.getType()))
-                .findFirst()
-                .map(condition -> "True".equals(condition.getStatus()))
-                .orElse(false);
+    private boolean applyServices(ManagedRedis redis, DesiredState desired) {
+        String namespace = redis.getMetadata().getNamespace();
+        boolean changed = false;
+        for (Service service : desired.getServices()) {
+            changed |= resourceApplier.apply(service, resourceCache.getService(namespace, service.getMetadata().getName()));
+        }
+        // The reader Service is only rendered for more than one replica
+        Service reader = resourceCache.getService(namespace, redis.getMetadata().getName() + "-reader");
+        if (redis.getSpec().getReplicas() <= 1 && reader != null) {
+            resourceApplier.delete(reader);
+            changed = true;
+        }
+        return changed;
     }
 
-    private void monitorRedisHealth(ManagedRedis redis) {
+    /**
+     * Cluster mode only: one RedisClusterManager pass, deleting the shard StatefulSets it has drained.
+     * Returns the shard layout for the status, or null to keep the recorded one.
+     */
+    private List<ManagedRedisStatus.Shard> reconcileCluster(ManagedRedis redis) {
+        if (!RedisResourceRenderer.isClusterMode(redis)) {
+            return null;
+        }
         String namespace = redis.getMetadata().getNamespace();
         String name = redis.getMetadata().getName();
-
+        String key = ReconcileQueue.keyOf(redis);
         try {
-            // Schedule periodic health checks
-            healthCheckExecutor.scheduleAtFixedRate(() -> {
-                try {
-                    List<Pod> redisPods = kubernetesClient.pods()
-                            .inNamespace(namespace)
-                            .withLabel(RedisConfig.APP_LABEL, name)
-                            .list()
-                            .getItems();
-
-                    boolean needsStatusUpdate = false;
-                    List<ManagedRedisStatus.Node> nodes = redis.getStatus().getNodes();
-                    
-                    if (nodes != null) {
-                        for (ManagedRedisStatus.Node node : nodes) {
-                            Pod pod = redisPods.stream()
-                                    .filter(p -> p.getMetadata().getName().equals(node.getName()))
-                                    .findFirst()
-                                    .orElse(null);
-
-                            if (pod != null) {
-                                String currentStatus = isPodReady(pod) ? "Ready" : "NotReady";
-                                if (!currentStatus.equals(node.getStatus())) {
-                                    node.setStatus(currentStatus);
-                                    needsStatusUpdate = true;
-                                }
-                            }
-                        }
-
-                        if (needsStatusUpdate) {
-                            updateStatus(redis, redis.getStatus().getPhase());
-                        }
-                    }
-                } catch (Exception e) {
-                    log.error("Failed to check Redis health", e);
-                }
-            }, redisConfig.getHealthCheck().getInitialDelay(), 
-               redisConfig.getHealthCheck().getPeriod(), 
-               TimeUnit.SECONDS);
-        } catch (Exception e) {
-            log.error("Failed to start Redis health monitoring", e);
+            RedisClusterManager.Topology topology = clusterManager.reconcile(redis,
+                    resourceCache.getStatefulSets(namespace, name), resourceCache.getPods(namespace, name));
+            for (String retired : topology.getRetired()) {
+                log.info("Deleting drained shard {}/{}", namespace, retired);
+                resourceApplier.delete(resourceCache.getStatefulSet(namespace, retired));
+            }
+            if (!topology.isSettled()) {
+                reconcileQueue.addAfter(key, redisConfig.getCluster().getRequeueDelay());
+            }
+            return topology.getShards();
+        } catch (RuntimeException e) {
+            // Nodes refuse cluster commands while they restart or before gossip has spread; try again shortly
+            log.warn("Redis cluster {} is not settled yet: {}", key, e.getMessage());
+            reconcileQueue.addAfter(key, redisConfig.getCluster().getRequeueDelay());
+            return null;
         }
     }
 
-    @PreDestroy
-    public void cleanup() {
-        if (healthCheckExecutor != null) {
-            healthCheckExecutor.shutdown();
-            try {
-                if (!healthCheckExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    healthCheckExecutor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                healthCheckExecutor.shutdownNow();
-                Thread.currentThread().interrupt();
+    private void updateStatus(ManagedRedis redis, String phase) {
+        updateStatus(redis, phase, null, null, null);
+    }
+
+    /**
+     * Refreshes the status from the caches and submits it for the next coalesced write.
+     * A non-null generation/specHash records that this spec has been applied; null shards keep the recorded layout.
+     */
+    private void updateStatus(ManagedRedis redis, String phase, Long observedGeneration, String specHash,
+                              List<ManagedRedisStatus.Shard> shards) {
+        String namespace = redis.getMetadata().getNamespace();
+        String name = redis.getMetadata().getName();
+
+        // Everything is read from the informer caches; the only API call is the status patch
+        ManagedRedis latestRedis = informer.getStore().getByKey(ReconcileQueue.keyOf(redis));
+        if (latestRedis == null) {
+            log.warn("ManagedRedis {}/{} not found", namespace, name);
+            return;
+        }
+
+        // The applied spec and shard layout may only be recorded in a status that has not been written yet
+        ManagedRedisStatus latest = statusAggregator.latest(latestRedis);
+        ManagedRedisStatus status = StatusCalculator.calculate(latestRedis,
+                resourceCache.getStatefulSets(namespace, name),
+                resourceCache.getPods(namespace, name),
+                phase,
+                healthMonitor.getProbes(ReconcileQueue.keyOf(latestRedis)),
+                redisConfig.getHealthCheck().getMaxReplicationLag(),
+                shards != null || latest == null ? shards : latest.getShards(),
+                RedisResourceRenderer.isClusterMode(latestRedis) ? null : failoverController.currentPrimary(latestRedis));
+        if (specHash != null) {
+            status.setObservedGeneration(observedGeneration);
+            status.setSpecHash(specHash);
+        } else if (latest != null) {
+            status.setObservedGeneration(latest.getObservedGeneration());
+            status.setSpecHash(latest.getSpecHash());
+        }
+        FailoverController.Promotion promotion = failoverController.getPromotion(ReconcileQueue.keyOf(latestRedis));
+        if (promotion != null && !promotion.isPlanned()) {
+            status.setLastFailoverTime(promotion.getTime().toString());
+            status.setLastFailoverMillis(promotion.getMillis());
+        } else if (latest != null) {
+            status.setLastFailoverTime(latest.getLastFailoverTime());
+            status.setLastFailoverMillis(latest.getLastFailoverMillis());
+        }
+        ManagedRedisStatus.Upgrade upgrade = upgradeOrchestrator.getUpgrade(ReconcileQueue.keyOf(latestRedis));
+        if (upgrade != null) {
+            status.setUpgrade(upgrade);
+            if (upgradeOrchestrator.isRollingOut(ReconcileQueue.keyOf(latestRedis))
+                    && !"Failed".equals(status.getPhase())) {
+                status.setPhase("Upgrading");
             }
+        } else if (latest != null) {
+            status.setUpgrade(latest.getUpgrade());
+        }
+
+        statusAggregator.submit(ReconcileQueue.keyOf(latestRedis), status);
+    }
+
+    private void statusWritten(ManagedRedis previous, ManagedRedisStatus written) {
+        log.info("Successfully updated status for {}/{} to {}", previous.getMetadata().getNamespace(),
+                previous.getMetadata().getName(), written.getPhase());
+        if ("Running".equals(written.getPhase())
+                && (previous.getStatus() == null || !"Running".equals(previous.getStatus().getPhase()))) {
+            publishStage(previous, ReconcileStageEvent.Stage.PODS_READY, null);
+            recordTimeToRunning(previous);
+        }
+    }
+
+    private void recordTimeToRunning(ManagedRedis redis) {
+        String creationTimestamp = redis.getMetadata().getCreationTimestamp();
+        if (creationTimestamp != null && reachedRunning.add(ReconcileQueue.keyOf(redis))) {
+            metrics.recordTimeToRunning(Duration.between(Instant.parse(creationTimestamp), Instant.now()));
         }
     }
 
-    private void updateRedisCluster(ManagedRedis oldRedis, ManagedRedis newRedis) {
-        String namespace = newRedis.getMetadata().getNamespace();
-        String name = newRedis.getMetadata().getName();
-        log.info("Updating Redis cluster: {}/{}", namespace, name);
+    private void publishStage(ManagedRedis redis, ReconcileStageEvent.Stage stage, String message) {
+        eventPublisher.publishEvent(new ReconcileStageEvent(redis.getMetadata().getNamespace(),
+                redis.getMetadata().getName(), stage, message));
+    }
 
+    private void markFailed(ManagedRedis redis) {
         try {
-            // Update StatefulSet replicas
-            StatefulSet statefulSet = kubernetesClient.apps().statefulSets()
-                    .inNamespace(namespace)
-                    .withName(name)
-                    .get();
-
-            if (statefulSet != null) {
-                statefulSet.getSpec().setReplicas(newRedis.getSpec().getReplicas());
-                kubernetesClient.apps().statefulSets()
-                        .inNamespace(namespace)
-                        .resource(statefulSet)
-                        .createOrReplace();
-
-                // Create or delete reader service based on replica count
-                if (newRedis.getSpec().getReplicas() > 1) {
-                    createRedisServices(newRedis);
-                } else {
-                    kubernetesClient.services()
-                            .inNamespace(namespace)
-                            .withName(name + "-reader")
-                            .delete();
-                }
-            }
+            updateStatus(redis, "Failed");
+        } catch (Exception statusError) {
+            log.error("Failed to update status for {}/{}", redis.getMetadata().getNamespace(),
+                    redis.getMetadata().getName(), statusError);
+        }
+    }
 
-            // Update status
-            updateStatus(newRedis, "Running");
-        } catch (Exception e) {
-            log.error("Failed to update Redis cluster", e);
-            updateStatus(newRedis, "Failed");
+    @PreDestroy
+    public void cleanup() {
+        reconcileQueue.shutdown();
+        if (reconcileExecutor != null) {
+            reconcileExecutor.shutdownNow();
+        }
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+        }
+        if (compareExecutor != null) {
+            compareExecutor.shutdownNow();
         }
     }
 
-    private void deleteRedisCluster(ManagedRedis redis) {
-        String namespace = redis.getMetadata().getNamespace();
-        String name = redis.getMetadata().getName();
+    private void deleteRedisCluster(String namespace, String name) {
         log.info("Deleting Redis cluster: {}/{}", namespace, name);
 
         // Kubernetes의 Owner Reference를 통해 자동으로 삭제됨
     }
-
-    private OwnerReference createOwnerReference(ManagedRedis redis) {
-        return new OwnerReferenceBuilder()
-                .withApiVersion(redis.getApiVersion())
-                .withKind(redis.getKind())
-                .withName(redis.getMetadata().getName())
-                .withUid(redis.getMetadata().getUid())
-                .withBlockOwnerDeletion(true)
-                .withController(true)
-                .build();
-    }
-}
\ No newline at end of file
+}
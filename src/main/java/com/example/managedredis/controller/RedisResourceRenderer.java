@@ -0,0 +1,439 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisSpec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.fabric8.kubernetes.api.model.*;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the desired StatefulSets, Services and redis.conf ConfigMap for a ManagedRedis. Pure CPU, no API calls.
+ * With spec.size 0 this is one primary-replica StatefulSet; with spec.size N > 0 it is a Redis Cluster
+ * of N shard StatefulSets, each with spec.replicas nodes.
+ * The last rendering per ManagedRedis is memoized and reused while its spec and identity are unchanged.
+ */
+@Component
+public class RedisResourceRenderer {
+
+    // Map.of iteration order changes between JVM runs; sort keys so the hash is stable across restarts
+    private static final ObjectWriter CANONICAL_WRITER = Serialization.jsonMapper().writer()
+            .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    private static final int CLUSTER_NODE_TIMEOUT_MILLIS = 5000;
+    // Hash of the restart-only redis.conf directives; changing it rolls the pods
+    static final String RESTART_CONFIG_ANNOTATION = "redis.managed.com/restart-config";
+    // Hash of the pod template, on the StatefulSet itself; UpgradeOrchestrator compares it to spot a new template
+    static final String TEMPLATE_HASH_ANNOTATION = "redis.managed.com/template-hash";
+
+    private final RedisConfig.Tuning tuning;
+    private final Map<String, DesiredState> rendered = new ConcurrentHashMap<>();
+
+    public RedisResourceRenderer(RedisConfig redisConfig) {
+        this.tuning = redisConfig.getTuning();
+    }
+
+    /**
+     * Desired children and spec hash for a ManagedRedis. The returned objects are shared; do not modify them.
+     */
+    public DesiredState render(ManagedRedis redis) {
+        return render(redis, defaultPrimary(redis));
+    }
+
+    /**
+     * Desired children with the -primary Service selecting the given pod, which differs from pod 0 after a failover.
+     */
+    public DesiredState render(ManagedRedis redis, String primary) {
+        String key = ReconcileQueue.keyOf(redis);
+        String inputs = inputs(redis, primary);
+        DesiredState cached = rendered.get(key);
+        if (cached != null && cached.getInputs().equals(inputs)) {
+            return cached;
+        }
+
+        List<StatefulSet> statefulSets = new ArrayList<>();
+        if (isClusterMode(redis)) {
+            for (int shard = 0; shard < redis.getSpec().getSize(); shard++) {
+                statefulSets.add(renderShardStatefulSet(redis, shard));
+            }
+        } else {
+            statefulSets.add(renderStatefulSet(redis));
+        }
+        List<Service> services = renderServices(redis, primary);
+        RedisConf conf = RedisConf.of(redis, tuning);
+        List<ConfigMap> configMaps = List.of(renderConfigMap(redis, conf));
+        // The spec hash ignores which pod is primary, so a failover or switchover is not a spec change;
+        // the -primary Service selector is repaired as drift instead
+        String firstPod = redis.getMetadata().getName() + "-0";
+        List<Service> hashedServices = primary.equals(firstPod) ? services : renderServices(redis, firstPod);
+        DesiredState desired = new DesiredState(inputs, statefulSets, services, configMaps, conf,
+                hash(statefulSets, hashedServices, configMaps));
+        rendered.put(key, desired);
+        return desired;
+    }
+
+    public void forget(String key) {
+        rendered.remove(key);
+    }
+
+    public static boolean isClusterMode(ManagedRedis redis) {
+        return redis.getSpec().getSize() > 0;
+    }
+
+    public static String shardName(String name, int shard) {
+        return name + "-shard-" + shard;
+    }
+
+    /**
+     * Everything rendering reads from the ManagedRedis.
+     */
+    private static String inputs(ManagedRedis redis, String primary) {
+        return redis.getMetadata().getUid() + "/" + redis.getApiVersion() + "/" + primary + "/"
+                + Serialization.asJson(redis.getSpec());
+    }
+
+    private static String defaultPrimary(ManagedRedis redis) {
+        if (redis.getStatus() != null && redis.getStatus().getCurrentPrimary() != null) {
+            return redis.getStatus().getCurrentPrimary();
+        }
+        return redis.getMetadata().getName() + "-0";
+    }
+
+    public StatefulSet renderStatefulSet(ManagedRedis redis) {
+        String name = redis.getMetadata().getName();
+        Map<String, String> labels = labels(name);
+
+        // A pod that restarts while another one is primary (after a failover or an upgrade switchover) follows
+        // the -primary Service instead of coming back as an empty primary; on first start there is none yet
+        Container container = redisContainer(redis)
+                .withArgs("if timeout 2 redis-cli -h " + name + "-primary -p " + RedisConfig.REDIS_PORT + " ping >/dev/null 2>&1; then " +
+                        redisServer() + " --slaveof " + name + "-primary " + RedisConfig.REDIS_PORT + "; " +
+                        "elif [ \"${HOSTNAME##*-}\" != \"0\" ]; then " +
+                        redisServer() + " --slaveof " + name + "-0." + name + " " + RedisConfig.REDIS_PORT + "; " +
+                        "else " +
+                        redisServer() + "; " +
+                        "fi")
+                .build();
+
+        return statefulSet(redis, name, labels, container);
+    }
+
+    /**
+     * One shard of a Redis Cluster. Slots and replication are assigned by RedisClusterManager once the
+     * pods are up; each node announces its pod IP, which is how the other nodes reach it.
+     */
+    public StatefulSet renderShardStatefulSet(ManagedRedis redis, int shard) {
+        String name = redis.getMetadata().getName();
+        Map<String, String> labels = labels(name);
+        labels.put(RedisConfig.SHARD_LABEL, String.valueOf(shard));
+
+        Container container = redisContainer(redis)
+                .addNewPort()
+                    .withContainerPort(Integer.parseInt(RedisConfig.CLUSTER_BUS_PORT))
+                    .withName("cluster-bus")
+                .endPort()
+                .addNewEnv()
+                    .withName("POD_IP")
+                    .withNewValueFrom()
+                        .withNewFieldRef()
+                            .withFieldPath("status.podIP")
+                        .endFieldRef()
+                    .endValueFrom()
+                .endEnv()
+                .withArgs(redisServer() +
+                        " --cluster-enabled yes" +
+                        " --cluster-config-file nodes.conf" +
+                        " --cluster-node-timeout " + CLUSTER_NODE_TIMEOUT_MILLIS +
+                        " --cluster-announce-ip \"$POD_IP\"")
+                .build();
+
+        return statefulSet(redis, shardName(name, shard), labels, container);
+    }
+
+    private static String redisServer() {
+        return "redis-server " + RedisConf.MOUNT_PATH + "/" + RedisConf.FILE_NAME + " --port " + RedisConfig.REDIS_PORT;
+    }
+
+    /**
+     * The redis.conf shared by all nodes of a ManagedRedis. Runtime directives are pushed to running nodes
+     * with CONFIG SET, so a change to them alone never restarts a pod.
+     */
+    public ConfigMap renderConfigMap(ManagedRedis redis) {
+        return renderConfigMap(redis, RedisConf.of(redis, tuning));
+    }
+
+    private ConfigMap renderConfigMap(ManagedRedis redis, RedisConf conf) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName(configMapName(redis.getMetadata().getName()))
+                    .withNamespace(redis.getMetadata().getNamespace())
+                    .withLabels(labels(redis.getMetadata().getName()))
+                    .withOwnerReferences(createOwnerReference(redis))
+                .endMetadata()
+                .withData(Map.of(RedisConf.FILE_NAME, conf.toFile()))
+                .build();
+    }
+
+    public static String configMapName(String name) {
+        return name + "-config";
+    }
+
+    private static ContainerBuilder redisContainer(ManagedRedis redis) {
+        ContainerBuilder container = new ContainerBuilder()
+                .withName("redis")
+                .withImage(String.format(RedisConfig.REDIS_IMAGE, redis.getSpec().getVersion()))
+                .withPorts(new ContainerPortBuilder()
+                        .withContainerPort(Integer.parseInt(RedisConfig.REDIS_PORT))
+                        .withName("redis")
+                        .build())
+                .withCommand("/bin/sh", "-c")
+                .withResources(new ResourceRequirementsBuilder()
+                        .withRequests(Map.of(
+                            "cpu", new Quantity(redis.getSpec().getResources().getRequests().getCpu()),
+                            "memory", new Quantity(redis.getSpec().getResources().getRequests().getMemory())
+                        ))
+                        .withLimits(Map.of(
+                            "cpu", new Quantity(redis.getSpec().getResources().getLimits().getCpu()),
+                            "memory", new Quantity(redis.getSpec().getResources().getLimits().getMemory())
+                        ))
+                        .build())
+                .withLivenessProbe(new ProbeBuilder()
+                        .withNewExec()
+                            .withCommand("redis-cli", "ping")
+                        .endExec()
+                        .withInitialDelaySeconds(30)
+                        .withPeriodSeconds(10)
+                        .build())
+                .withReadinessProbe(new ProbeBuilder()
+                        .withNewExec()
+                            .withCommand("redis-cli", "ping")
+                        .endExec()
+                        .withInitialDelaySeconds(5)
+                        .withPeriodSeconds(5)
+                        .build())
+                .addNewVolumeMount()
+                    .withName("config")
+                    .withMountPath(RedisConf.MOUNT_PATH)
+                    .withReadOnly(true)
+                .endVolumeMount();
+        if (RedisConf.hasDataVolume(redis)) {
+            container.addNewVolumeMount()
+                    .withName("data")
+                    .withMountPath(RedisConf.DATA_PATH)
+                .endVolumeMount();
+        }
+        return container;
+    }
+
+    private StatefulSet statefulSet(ManagedRedis redis, String name, Map<String, String> labels, Container container) {
+        List<PersistentVolumeClaim> volumeClaimTemplates = new ArrayList<>();
+        if (RedisConf.hasDataVolume(redis)) {
+            ManagedRedisSpec.Persistence persistence = redis.getSpec().getConfiguration().getPersistence();
+            volumeClaimTemplates.add(new PersistentVolumeClaimBuilder()
+                    .withNewMetadata()
+                        .withName("data")
+                        .withLabels(labels)
+                    .endMetadata()
+                    .withNewSpec()
+                        .withAccessModes("ReadWriteOnce")
+                        .withStorageClassName(persistence.getStorageClassName())
+                        .withNewResources()
+                            .withRequests(Map.of("storage", new Quantity(persistence.getStorageSize())))
+                        .endResources()
+                    .endSpec()
+                    .build());
+        }
+        String restartConfig = sha256(RedisConf.of(redis, tuning).getRestart().toString());
+        PodTemplateSpec template = new PodTemplateSpecBuilder()
+                .withNewMetadata()
+                    .withLabels(labels)
+                    .withAnnotations(Map.of(RESTART_CONFIG_ANNOTATION, restartConfig))
+                .endMetadata()
+                .withNewSpec()
+                    .withContainers(container)
+                    .addNewVolume()
+                        .withName("config")
+                        .withNewConfigMap()
+                            .withName(configMapName(redis.getMetadata().getName()))
+                        .endConfigMap()
+                    .endVolume()
+                .endSpec()
+                .build();
+
+        // Pods of every shard share the headless Service named after the ManagedRedis.
+        // Partition 0 rolls every pod; UpgradeOrchestrator raises it to roll a Primary-Replica cluster pod by pod
+        return new StatefulSetBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withNamespace(redis.getMetadata().getNamespace())
+                    .withLabels(labels)
+                    .withAnnotations(Map.of(TEMPLATE_HASH_ANNOTATION, templateHash(template)))
+                    .withOwnerReferences(createOwnerReference(redis))
+                .endMetadata()
+                .withNewSpec()
+                    .withReplicas(redis.getSpec().getReplicas())
+                    .withServiceName(redis.getMetadata().getName())
+                    .withNewSelector()
+                        .withMatchLabels(labels)
+                    .endSelector()
+                    .withNewUpdateStrategy()
+                        .withType("RollingUpdate")
+                        .withNewRollingUpdate()
+                            .withPartition(0)
+                        .endRollingUpdate()
+                    .endUpdateStrategy()
+                    .withTemplate(template)
+                    .withVolumeClaimTemplates(volumeClaimTemplates)
+                .endSpec()
+                .build();
+    }
+
+    public List<Service> renderServices(ManagedRedis redis) {
+        return renderServices(redis, defaultPrimary(redis));
+    }
+
+    public List<Service> renderServices(ManagedRedis redis, String primary) {
+        String namespace = redis.getMetadata().getNamespace();
+        String name = redis.getMetadata().getName();
+        Map<String, String> labels = labels(name);
+        List<Service> services = new ArrayList<>();
+
+        // Headless service for StatefulSet
+        services.add(new ServiceBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withNamespace(namespace)
+                    .withLabels(labels)
+                    .withOwnerReferences(createOwnerReference(redis))
+                .endMetadata()
+                .withNewSpec()
+                    .withClusterIP("None")
+                    .withSelector(Map.of(RedisConfig.APP_LABEL, name))
+                    .withPorts(new ServicePortBuilder()
+                            .withPort(Integer.parseInt(RedisConfig.REDIS_PORT))
+                            .withName("redis")
+                            .build())
+                .endSpec()
+                .build());
+
+        if (isClusterMode(redis)) {
+            // Cluster clients bootstrap from any node through the headless Service and follow MOVED redirects
+            return services;
+        }
+
+        // Primary Service (pod 0 until a replica is promoted)
+        services.add(new ServiceBuilder()
+                .withNewMetadata()
+                    .withName(name + "-primary")
+                    .withNamespace(namespace)
+                    .withLabels(labels)
+                    .withOwnerReferences(createOwnerReference(redis))
+                .endMetadata()
+                .withNewSpec()
+                    .withSelector(Map.of(
+                        RedisConfig.APP_LABEL, name,
+                        "statefulset.kubernetes.io/pod-name", primary
+                    ))
+                    .withPorts(new ServicePortBuilder()
+                            .withPort(Integer.parseInt(RedisConfig.REDIS_PORT))
+                            .withName("redis")
+                            .build())
+                .endSpec()
+                .build());
+
+        // Reader Service (for replicas)
+        if (redis.getSpec().getReplicas() > 1) {
+            services.add(new ServiceBuilder()
+                    .withNewMetadata()
+                        .withName(name + "-reader")
+                        .withNamespace(namespace)
+                        .withLabels(labels)
+                        .withOwnerReferences(createOwnerReference(redis))
+                    .endMetadata()
+                    .withNewSpec()
+                        .withSelector(Map.of(
+                            RedisConfig.APP_LABEL, name
+                        ))
+                        .withPorts(new ServicePortBuilder()
+                                .withPort(Integer.parseInt(RedisConfig.REDIS_PORT))
+                                .withName("redis")
+                                .build())
+                    .endSpec()
+                    .build());
+        }
+
+        return services;
+    }
+
+    /**
+     * Hash of everything the operator would apply for this ManagedRedis, except which pod the -primary
+     * Service selects. Changes when the spec changes and also when a new operator version renders the
+     * same spec differently.
+     */
+    public String specHash(ManagedRedis redis) {
+        return render(redis).getSpecHash();
+    }
+
+    private static String hash(List<StatefulSet> statefulSets, List<Service> services, List<ConfigMap> configMaps) {
+        List<HasMetadata> resources = new ArrayList<>(statefulSets);
+        resources.addAll(services);
+        resources.addAll(configMaps);
+        try {
+            return sha256(CANONICAL_WRITER.writeValueAsString(resources));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String templateHash(PodTemplateSpec template) {
+        try {
+            return sha256(CANONICAL_WRITER.writeValueAsString(template));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> labels(String name) {
+        Map<String, String> labels = new HashMap<>();
+        labels.put(RedisConfig.APP_LABEL, name);
+        labels.put(RedisConfig.MANAGED_BY_LABEL, RedisConfig.MANAGED_BY);
+        return labels;
+    }
+
+    private OwnerReference createOwnerReference(ManagedRedis redis) {
+        return new OwnerReferenceBuilder()
+                .withApiVersion(redis.getApiVersion())
+                .withKind(redis.getKind())
+                .withName(redis.getMetadata().getName())
+                .withUid(redis.getMetadata().getUid())
+                .withBlockOwnerDeletion(true)
+                .withController(true)
+                .build();
+    }
+}
@@ -0,0 +1,384 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.ExecutorFactory;
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisSpec;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.metrics.v1beta1.ContainerMetrics;
+import io.fabric8.kubernetes.api.model.metrics.v1beta1.PodMetrics;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.dsl.base.ResourceDefinitionContext;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scales spec.replicas of Primary-Replica ManagedRedis resources that have spec.autoscaling, the way the
+ * HorizontalPodAutoscaler scales a Deployment. Each interval the command rate of every node is sampled from
+ * INFO stats (total_commands_processed deltas) and CPU and memory from the metrics API; the resulting
+ * recommendation is applied as a spec patch, which the reconciler rolls out to the StatefulSet and the
+ * -reader Service like any other spec change.
+ * <p>
+ * Flapping is held off by a tolerance band around the targets, per-direction cooldowns measured from the
+ * last scale (kept in an annotation so they survive operator restarts), scale-down stabilization (the
+ * highest recommendation over the scale-down cooldown wins) and scaling down one replica at a time.
+ */
+@Component
+public class ReplicaAutoscaler {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaAutoscaler.class);
+
+    static final String LAST_SCALE_ANNOTATION = "redis.managed.com/last-scale-time";
+
+    private static final ResourceDefinitionContext CONTEXT = ResourceDefinitionContext.fromResourceType(ManagedRedis.class);
+
+    private final RedisConfig.Autoscaling config;
+    private final KubernetesClient kubernetesClient;
+    private final SharedIndexInformer<ManagedRedis> informer;
+    private final ManagedResourceCache resourceCache;
+    private final RespClient respClient;
+    private final ShardCoordinator coordinator;
+    private final ExecutorFactory executorFactory;
+    private final OperatorMetrics metrics;
+    private final Map<String, TrackedCluster> clusters = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService evaluator;
+
+    public ReplicaAutoscaler(RedisConfig redisConfig, KubernetesClient kubernetesClient,
+                             SharedIndexInformer<ManagedRedis> informer, ManagedResourceCache resourceCache,
+                             RespClient respClient, ShardCoordinator coordinator, ExecutorFactory executorFactory,
+                             OperatorMetrics metrics) {
+        this.config = redisConfig.getAutoscaling();
+        this.kubernetesClient = kubernetesClient;
+        this.informer = informer;
+        this.resourceCache = resourceCache;
+        this.respClient = respClient;
+        this.coordinator = coordinator;
+        this.executorFactory = executorFactory;
+        this.metrics = metrics;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            log.info("Replica autoscaling is disabled");
+            return;
+        }
+        scheduler = executorFactory.newScheduledPool("autoscaler", 1);
+        // The metrics API call is blocking; keep it off the scheduler thread
+        evaluator = executorFactory.newTaskExecutor("autoscaler-eval", 2);
+        scheduler.scheduleWithFixedDelay(this::evaluateAll, config.getInterval(), config.getInterval(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void evaluateAll() {
+        try {
+            for (String key : informer.getStore().listKeys()) {
+                ManagedRedis redis = informer.getStore().getByKey(key);
+                if (redis == null || redis.getSpec().getAutoscaling() == null
+                        || RedisResourceRenderer.isClusterMode(redis) || !coordinator.owns(key)) {
+                    clusters.remove(key);
+                    continue;
+                }
+                TrackedCluster cluster = clusters.computeIfAbsent(key, k -> new TrackedCluster());
+                if (cluster.evaluating.compareAndSet(false, true)) {
+                    evaluator.execute(() -> {
+                        try {
+                            evaluate(key, cluster);
+                        } catch (Exception e) {
+                            log.warn("Failed to evaluate autoscaling for {}", key, e);
+                        } finally {
+                            cluster.evaluating.set(false);
+                        }
+                    });
+                }
+            }
+            clusters.keySet().removeIf(key -> informer.getStore().getByKey(key) == null);
+        } catch (Exception e) {
+            log.error("Failed to evaluate autoscaling", e);
+        }
+    }
+
+    private void evaluate(String key, TrackedCluster cluster) {
+        ManagedRedis redis = informer.getStore().getByKey(key);
+        if (redis == null || redis.getSpec().getAutoscaling() == null) {
+            return;
+        }
+        ManagedRedisSpec.Autoscaling policy = redis.getSpec().getAutoscaling();
+        int current = redis.getSpec().getReplicas();
+
+        // Out-of-range replicas are corrected right away, like the HPA does
+        if (current < policy.getMinReplicas() || current > policy.getMaxReplicas()) {
+            scale(redis, Math.max(policy.getMinReplicas(), Math.min(policy.getMaxReplicas(), current)), "bounds");
+            cluster.recommendations.clear();
+            return;
+        }
+        // Only a settled cluster gives a meaningful load picture; a rollout or failover is in progress otherwise
+        if (redis.getStatus() == null || !"Running".equals(redis.getStatus().getPhase())) {
+            return;
+        }
+
+        String namespace = redis.getMetadata().getNamespace();
+        String name = redis.getMetadata().getName();
+        List<Pod> pods = resourceCache.getPods(namespace, name);
+        Double opsPerSecond = policy.getTargetOpsPerReplica() == null ? null : sampleOps(pods, cluster);
+        Map<String, PodUsage> usage = policy.getTargetCpuUtilization() == null
+                && policy.getMemoryHeadroomPercent() == null ? Map.of() : podUsage(namespace, name);
+
+        int recommended = recommend(redis, current, opsPerSecond, usage);
+        long now = System.nanoTime();
+        Deque<long[]> history = cluster.recommendations;
+        history.addLast(new long[]{now, recommended});
+        long window = TimeUnit.SECONDS.toNanos(scaleDownCooldown(policy));
+        while (!history.isEmpty() && now - history.peekFirst()[0] > window) {
+            history.removeFirst();
+        }
+
+        Duration sinceLastScale = sinceLastScale(redis);
+        if (recommended > current) {
+            if (sinceLastScale != null && sinceLastScale.getSeconds() < scaleUpCooldown(policy)) {
+                log.debug("{} recommends {} replicas, scale-up cooldown active", key, recommended);
+                return;
+            }
+            String primary = currentPrimary(redis);
+            PodUsage primaryUsage = usage.get(primary);
+            if (policy.getMemoryHeadroomPercent() != null && primaryUsage != null
+                    && primaryUsage.memoryUtilization(redis) > 100 - policy.getMemoryHeadroomPercent()) {
+                // A new replica starts with a full sync: the primary forks for the RDB and needs copy-on-write room
+                log.warn("Not scaling up {}: primary {} has less than {}% memory headroom", key, primary,
+                        policy.getMemoryHeadroomPercent());
+                return;
+            }
+            scale(redis, recommended, "up");
+            history.clear();
+        } else if (recommended < current) {
+            // Stabilization: scale down only as far as every recommendation in the window allows
+            long stabilized = history.stream().mapToLong(entry -> entry[1]).max().orElse(current);
+            if (stabilized >= current
+                    || sinceLastScale != null && sinceLastScale.getSeconds() < scaleDownCooldown(policy)) {
+                return;
+            }
+            // The StatefulSet removes the highest ordinal; never the primary after a failover promoted it
+            if ((name + "-" + (current - 1)).equals(currentPrimary(redis))) {
+                log.info("Not scaling down {}: {} is the primary", key, currentPrimary(redis));
+                return;
+            }
+            scale(redis, current - 1, "down");
+            history.clear();
+        }
+    }
+
+    /**
+     * The highest replica count any configured target asks for, clamped to the policy bounds;
+     * the current count when load is within the tolerance of every target or nothing could be measured.
+     */
+    private int recommend(ManagedRedis redis, int current, Double opsPerSecond, Map<String, PodUsage> usage) {
+        ManagedRedisSpec.Autoscaling policy = redis.getSpec().getAutoscaling();
+        int recommended = -1;
+        if (opsPerSecond != null && policy.getTargetOpsPerReplica() != null && policy.getTargetOpsPerReplica() > 0) {
+            double ratio = opsPerSecond / ((double) current * policy.getTargetOpsPerReplica());
+            recommended = Math.max(recommended, withinTolerance(ratio) ? current
+                    : (int) Math.ceil(opsPerSecond / policy.getTargetOpsPerReplica()));
+        }
+        double cpuRequest = cores(redis.getSpec().getResources() == null
+                || redis.getSpec().getResources().getRequests() == null
+                ? null : redis.getSpec().getResources().getRequests().getCpu());
+        if (policy.getTargetCpuUtilization() != null && policy.getTargetCpuUtilization() > 0 && cpuRequest > 0
+                && !usage.isEmpty()) {
+            double cpu = usage.values().stream().mapToDouble(podUsage -> podUsage.cpuCores).sum();
+            double utilization = 100 * cpu / (usage.size() * cpuRequest);
+            double ratio = utilization / policy.getTargetCpuUtilization();
+            recommended = Math.max(recommended, withinTolerance(ratio) ? current : (int) Math.ceil(current * ratio));
+        }
+        if (recommended < 0) {
+            return current;
+        }
+        return Math.max(policy.getMinReplicas(), Math.min(policy.getMaxReplicas(), recommended));
+    }
+
+    private boolean withinTolerance(double ratio) {
+        return Math.abs(ratio - 1.0) <= config.getTolerance();
+    }
+
+    /**
+     * Commands per second over all ready nodes since the previous sample, or null until every node has
+     * two samples (a new pod or a restarted node, whose counter went back to zero, has none).
+     */
+    private Double sampleOps(List<Pod> pods, TrackedCluster cluster) {
+        Map<String, CompletableFuture<Object>> replies = new HashMap<>();
+        for (Pod pod : pods) {
+            String podIP = pod.getStatus() == null ? null : pod.getStatus().getPodIP();
+            if (podIP != null && StatusCalculator.isPodReady(pod)) {
+                replies.put(pod.getMetadata().getName() + "/" + podIP, respClient.send(
+                        new InetSocketAddress(podIP, Integer.parseInt(RedisConfig.REDIS_PORT)), "INFO", "stats"));
+            }
+        }
+
+        double total = 0;
+        boolean complete = !replies.isEmpty();
+        Map<String, long[]> samples = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<Object>> reply : replies.entrySet()) {
+            String commands;
+            try {
+                commands = NodeProbe.parseInfo((String) reply.getValue().join()).get("total_commands_processed");
+            } catch (RuntimeException e) {
+                commands = null;
+            }
+            if (commands == null) {
+                complete = false;
+                continue;
+            }
+            long[] sample = {System.nanoTime(), Long.parseLong(commands)};
+            samples.put(reply.getKey(), sample);
+            long[] previous = cluster.commandSamples.get(reply.getKey());
+            if (previous == null || sample[1] < previous[1] || sample[0] <= previous[0]) {
+                complete = false;
+            } else {
+                total += (sample[1] - previous[1]) * 1e9 / (sample[0] - previous[0]);
+            }
+        }
+        cluster.commandSamples = samples;
+        return complete ? total : null;
+    }
+
+    /**
+     * CPU and memory of each pod from the metrics API; empty when the metrics server is unavailable.
+     */
+    private Map<String, PodUsage> podUsage(String namespace, String name) {
+        Map<String, PodUsage> usage = new HashMap<>();
+        try {
+            for (PodMetrics podMetrics : kubernetesClient.top().pods().inNamespace(namespace)
+                    .withLabels(Map.of(RedisConfig.APP_LABEL, name)).metrics().getItems()) {
+                PodUsage podUsage = new PodUsage();
+                for (ContainerMetrics container : podMetrics.getContainers()) {
+                    podUsage.cpuCores += quantity(container.getUsage().get("cpu"));
+                    podUsage.memoryBytes += quantity(container.getUsage().get("memory"));
+                }
+                usage.put(podMetrics.getMetadata().getName(), podUsage);
+            }
+        } catch (KubernetesClientException e) {
+            log.debug("Pod metrics for {}/{} unavailable: {}", namespace, name, e.getMessage());
+        }
+        return usage;
+    }
+
+    private void scale(ManagedRedis redis, int replicas, String direction) {
+        String namespace = redis.getMetadata().getNamespace();
+        String name = redis.getMetadata().getName();
+        // resourceVersion makes this a compare-and-swap: a concurrent spec edit wins and we re-evaluate next time
+        Map<String, Object> patch = Map.of(
+                "metadata", Map.of(
+                        "resourceVersion", redis.getMetadata().getResourceVersion(),
+                        "annotations", Map.of(LAST_SCALE_ANNOTATION, Instant.now().toString())),
+                "spec", Map.of("replicas", replicas));
+        try {
+            kubernetesClient.genericKubernetesResources(CONTEXT)
+                    .inNamespace(namespace)
+                    .withName(name)
+                    .patch(PatchContext.of(PatchType.JSON_MERGE), Serialization.asJson(patch));
+            metrics.autoscaled(direction);
+            log.info("Autoscaled {}/{} from {} to {} replicas", namespace, name, redis.getSpec().getReplicas(), replicas);
+        } catch (KubernetesClientException e) {
+            if (e.getCode() == HttpURLConnection.HTTP_CONFLICT) {
+                log.debug("ManagedRedis {}/{} changed while autoscaling, retrying next interval", namespace, name);
+            } else {
+                log.warn("Failed to scale {}/{} to {} replicas: {}", namespace, name, replicas, e.getMessage());
+            }
+        }
+    }
+
+    private int scaleUpCooldown(ManagedRedisSpec.Autoscaling policy) {
+        return policy.getScaleUpCooldownSeconds() != null ? policy.getScaleUpCooldownSeconds() : config.getScaleUpCooldown();
+    }
+
+    private int scaleDownCooldown(ManagedRedisSpec.Autoscaling policy) {
+        return policy.getScaleDownCooldownSeconds() != null
+                ? policy.getScaleDownCooldownSeconds() : config.getScaleDownCooldown();
+    }
+
+    private static Duration sinceLastScale(ManagedRedis redis) {
+        Map<String, String> annotations = redis.getMetadata().getAnnotations();
+        String lastScale = annotations == null ? null : annotations.get(LAST_SCALE_ANNOTATION);
+        if (lastScale == null) {
+            return null;
+        }
+        try {
+            return Duration.between(Instant.parse(lastScale), Instant.now());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String currentPrimary(ManagedRedis redis) {
+        if (redis.getStatus() != null && redis.getStatus().getCurrentPrimary() != null) {
+            return redis.getStatus().getCurrentPrimary();
+        }
+        return redis.getMetadata().getName() + "-0";
+    }
+
+    private static double cores(String cpu) {
+        return cpu == null ? 0 : quantity(new Quantity(cpu));
+    }
+
+    private static double quantity(Quantity quantity) {
+        return quantity == null ? 0 : Quantity.getAmountInBytes(quantity).doubleValue();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (evaluator != null) {
+            evaluator.shutdownNow();
+        }
+    }
+
+    private static final class PodUsage {
+        private double cpuCores;
+        private double memoryBytes;
+
+        /**
+         * Memory used as a percentage of the memory limit, 0 without a limit.
+         */
+        double memoryUtilization(ManagedRedis redis) {
+            ManagedRedisSpec.Resources resources = redis.getSpec().getResources();
+            double limit = resources == null || resources.getLimits() == null || resources.getLimits().getMemory() == null
+                    ? 0 : quantity(new Quantity(resources.getLimits().getMemory()));
+            return limit > 0 ? 100 * memoryBytes / limit : 0;
+        }
+    }
+
+    private static final class TrackedCluster {
+        private final AtomicBoolean evaluating = new AtomicBoolean();
+        // {nanoTime, recommended replicas}, oldest first
+        private final Deque<long[]> recommendations = new ArrayDeque<>();
+        // "pod/ip" -> {nanoTime, total_commands_processed}
+        private volatile Map<String, long[]> commandSamples = Map.of();
+    }
+}
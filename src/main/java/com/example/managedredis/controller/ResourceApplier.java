@@ -0,0 +1,174 @@
+package com.example.managedredis.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.HttpURLConnection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Applies a rendered child resource only when the cached live object has drifted from it.
+ * Drift is checked semantically: every field we render must be present in the live object with an
+ * equal value (quantities compared by amount); fields the API server defaults or other controllers
+ * add are ignored. Drift is repaired with a JSON merge patch of the rendered metadata and spec or data.
+ */
+@Component
+public class ResourceApplier {
+    private static final Logger log = LoggerFactory.getLogger(ResourceApplier.class);
+
+    static final String CREATED = "created";
+    static final String PATCHED = "patched";
+    static final String UNCHANGED = "unchanged";
+
+    private final KubernetesClient kubernetesClient;
+    private final OperatorMetrics metrics;
+
+    public ResourceApplier(KubernetesClient kubernetesClient, OperatorMetrics metrics) {
+        this.kubernetesClient = kubernetesClient;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns true if a create or patch was sent.
+     */
+    public boolean apply(HasMetadata desired, HasMetadata live) {
+        String result = live == null ? create(desired) : patchIfDrifted(desired, live);
+        metrics.applied(desired.getKind(), result);
+        return !UNCHANGED.equals(result);
+    }
+
+    /**
+     * True if apply would send a create or patch. No API call.
+     */
+    public boolean needsApply(HasMetadata desired, HasMetadata live) {
+        return live == null || isDrifted(owned(desired), Serialization.jsonMapper().valueToTree(live));
+    }
+
+    public void delete(HasMetadata live) {
+        if (live != null) {
+            kubernetesClient.resource(live).delete();
+            metrics.applied(live.getKind(), "deleted");
+        }
+    }
+
+    private String create(HasMetadata desired) {
+        try {
+            // The rendered object is memoized and shared, so send a copy
+            kubernetesClient.resource(Serialization.clone(desired)).create();
+            return CREATED;
+        } catch (KubernetesClientException e) {
+            if (e.getCode() != HttpURLConnection.HTTP_CONFLICT) {
+                throw e;
+            }
+            // Exists but is not in the cache yet (or predates the managed-by label): patch it instead
+            log.debug("{} {}/{} already exists, patching", desired.getKind(),
+                    desired.getMetadata().getNamespace(), desired.getMetadata().getName());
+            patch(desired);
+            return PATCHED;
+        }
+    }
+
+    private String patchIfDrifted(HasMetadata desired, HasMetadata live) {
+        JsonNode owned = owned(desired);
+        if (!isDrifted(owned, Serialization.jsonMapper().valueToTree(live))) {
+            return UNCHANGED;
+        }
+        log.info("{} {}/{} drifted from the desired state, patching", desired.getKind(),
+                desired.getMetadata().getNamespace(), desired.getMetadata().getName());
+        patch(desired);
+        return PATCHED;
+    }
+
+    private void patch(HasMetadata desired) {
+        kubernetesClient.resource(Serialization.clone(desired))
+                .patch(PatchContext.of(PatchType.JSON_MERGE), Serialization.asJson(owned(desired)));
+    }
+
+    /**
+     * The parts of a rendered object the operator owns: labels, owner references and spec (data for a ConfigMap).
+     */
+    static JsonNode owned(HasMetadata desired) {
+        ObjectNode rendered = Serialization.jsonMapper().valueToTree(desired);
+        ObjectNode owned = Serialization.jsonMapper().createObjectNode();
+        ObjectNode metadata = owned.putObject("metadata");
+        JsonNode renderedMetadata = rendered.path("metadata");
+        for (String field : new String[]{"labels", "annotations", "ownerReferences"}) {
+            if (renderedMetadata.has(field)) {
+                metadata.set(field, renderedMetadata.get(field));
+            }
+        }
+        if (rendered.has("spec")) {
+            owned.set("spec", rendered.get("spec"));
+        }
+        if (rendered.has("data")) {
+            owned.set("data", rendered.get("data"));
+        }
+        return owned;
+    }
+
+    static boolean isDrifted(JsonNode desired, JsonNode live) {
+        return !contains(live, desired);
+    }
+
+    /**
+     * True if every field of desired is in live with the same value. Arrays must have the same length
+     * and match element by element, since the rendered lists (containers, ports) are complete.
+     */
+    private static boolean contains(JsonNode live, JsonNode desired) {
+        if (desired == null || desired.isNull()) {
+            return true;
+        }
+        if (live == null || live.isMissingNode() || live.isNull()) {
+            return false;
+        }
+        if (desired.isObject()) {
+            if (!live.isObject()) {
+                return false;
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = desired.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!contains(live.get(field.getKey()), field.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (desired.isArray()) {
+            if (!live.isArray() || live.size() != desired.size()) {
+                return false;
+            }
+            for (int i = 0; i < desired.size(); i++) {
+                if (!contains(live.get(i), desired.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (desired.equals(live)) {
+            return true;
+        }
+        // The API server canonicalizes quantities, e.g. 1024Mi is stored as 1Gi
+        return desired.isTextual() && live.isTextual() && sameQuantity(desired.asText(), live.asText());
+    }
+
+    private static boolean sameQuantity(String desired, String live) {
+        try {
+            return Quantity.getAmountInBytes(new Quantity(desired))
+                    .compareTo(Quantity.getAmountInBytes(new Quantity(live))) == 0;
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Minimal non-blocking Redis (RESP2) client. A few selector threads serve every node: each address
+ * is pinned to one event loop and gets a small pool of pipelined connections that are reused across
+ * requests and closed when idle. Futures complete on the event loop thread, so callbacks must not block.
+ * <p>
+ * Replies are mapped to String (simple and bulk strings), Long (integers), List (arrays) and null (nil);
+ * error replies complete the future exceptionally with {@link RespException}.
+ */
+@Component
+public class RespClient {
+    private static final Logger log = LoggerFactory.getLogger(RespClient.class);
+
+    private static final Object INCOMPLETE = new Object();
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final RedisConfig.Resp config;
+    private final EventLoop[] loops;
+
+    public RespClient(RedisConfig redisConfig) {
+        this.config = redisConfig.getResp();
+        this.loops = new EventLoop[Math.max(1, config.getIoThreads())];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop("resp-io-" + i);
+        }
+    }
+
+    public CompletableFuture<Object> send(InetSocketAddress address, String... command) {
+        Request request = new Request(address, encode(command),
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getTimeout()));
+        loops[Math.floorMod(address.hashCode(), loops.length)].submit(request);
+        return request.future;
+    }
+
+    public int getOpenConnectionCount() {
+        int count = 0;
+        for (EventLoop loop : loops) {
+            count += loop.connectionCount;
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public void close() {
+        for (EventLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+
+    static byte[] encode(String... command) {
+        StringBuilder builder = new StringBuilder();
+        builder.append('*').append(command.length).append("\r\n");
+        for (String arg : command) {
+            byte[] bytes = arg.getBytes(StandardCharsets.UTF_8);
+            builder.append('$').append(bytes.length).append("\r\n").append(arg).append("\r\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses one reply from the buffer, or returns INCOMPLETE (with an undefined position) if more bytes are needed.
+     */
+    static Object parse(ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) {
+            return INCOMPLETE;
+        }
+        byte type = buffer.get();
+        String line = readLine(buffer);
+        if (line == null) {
+            return INCOMPLETE;
+        }
+
+        switch (type) {
+            case '+':
+                return line;
+            case '-':
+                return new RespException(line);
+            case ':':
+                return Long.parseLong(line);
+            case '$': {
+                int length = Integer.parseInt(line);
+                if (length < 0) {
+                    return null;
+                }
+                if (buffer.remaining() < length + CRLF.length) {
+                    return INCOMPLETE;
+                }
+                byte[] data = new byte[length];
+                buffer.get(data);
+                buffer.position(buffer.position() + CRLF.length);
+                return new String(data, StandardCharsets.UTF_8);
+            }
+            case '*': {
+                int count = Integer.parseInt(line);
+                if (count < 0) {
+                    return null;
+                }
+                List<Object> items = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    Object item = parse(buffer);
+                    if (item == INCOMPLETE) {
+                        return INCOMPLETE;
+                    }
+                    items.add(item);
+                }
+                return items;
+            }
+            default:
+                throw new IllegalStateException("Unexpected RESP type '" + (char) type + "'");
+        }
+    }
+
+    private static String readLine(ByteBuffer buffer) {
+        int start = buffer.position();
+        for (int i = start; i < buffer.limit() - 1; i++) {
+            if (buffer.get(i) == '\r' && buffer.get(i + 1) == '\n') {
+                byte[] line = new byte[i - start];
+                buffer.get(line);
+                buffer.position(i + CRLF.length);
+                return new String(line, StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    public static class RespException extends RuntimeException {
+        public RespException(String message) {
+            super(message);
+        }
+    }
+
+    private static class Request {
+        private final InetSocketAddress address;
+        private final byte[] payload;
+        private final long deadlineNanos;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        private Request(InetSocketAddress address, byte[] payload, long deadlineNanos) {
+            this.address = address;
+            this.payload = payload;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final Queue<Request> submissions = new ConcurrentLinkedQueue<>();
+        private final Map<InetSocketAddress, List<Connection>> pools = new HashMap<>();
+        private volatile boolean running = true;
+        private volatile int connectionCount;
+
+        private EventLoop(String name) {
+            try {
+                this.selector = Selector.open();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to open selector", e);
+            }
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void submit(Request request) {
+            if (!running) {
+                request.future.completeExceptionally(new IllegalStateException("RESP client is closed"));
+                return;
+            }
+            submissions.add(request);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select(100);
+                    Request request;
+                    while ((request = submissions.poll()) != null) {
+                        dispatch(request);
+                    }
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isConnectable()) {
+                                connection.finishConnect();
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush();
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            connection.close(e);
+                        }
+                    }
+
+                    expire();
+                } catch (Exception e) {
+                    log.error("RESP event loop error", e);
+                }
+            }
+
+            for (List<Connection> pool : new ArrayList<>(pools.values())) {
+                for (Connection connection : new ArrayList<>(pool)) {
+                    connection.close(new IllegalStateException("RESP client is closed"));
+                }
+            }
+            Request request;
+            while ((request = submissions.poll()) != null) {
+                request.future.completeExceptionally(new IllegalStateException("RESP client is closed"));
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.debug("Failed to close selector", e);
+            }
+        }
+
+        private void dispatch(Request request) {
+            List<Connection> pool = pools.computeIfAbsent(request.address, address -> new ArrayList<>());
+            Connection best = null;
+            for (Connection connection : pool) {
+                if (best == null || connection.inFlight.size() < best.inFlight.size()) {
+                    best = connection;
+                }
+            }
+            // Pipeline on an existing connection unless all are busy and the pool may grow
+            if (best == null || (!best.inFlight.isEmpty() && pool.size() < config.getConnectionsPerNode())) {
+                try {
+                    best = new Connection(this, request.address);
+                    pool.add(best);
+                    connectionCount++;
+                } catch (IOException | RuntimeException e) {
+                    request.future.completeExceptionally(e);
+                    return;
+                }
+            }
+            best.enqueue(request);
+        }
+
+        private void expire() {
+            long now = System.nanoTime();
+            long idleNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeout());
+            for (List<Connection> pool : new ArrayList<>(pools.values())) {
+                for (Connection connection : new ArrayList<>(pool)) {
+                    Request oldest = connection.inFlight.peek();
+                    if (oldest != null && now - oldest.deadlineNanos > 0) {
+                        // Later replies on this connection can no longer be matched to requests
+                        connection.close(new TimeoutException("RESP request to " + connection.address + " timed out"));
+                    } else if (oldest == null && now - connection.lastUsedNanos > idleNanos) {
+                        connection.close(null);
+                    }
+                }
+            }
+        }
+
+        private void shutdown() {
+            running = false;
+            selector.wakeup();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class Connection {
+        private final EventLoop loop;
+        private final InetSocketAddress address;
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final Queue<Request> inFlight = new ArrayDeque<>();
+        private final Queue<ByteBuffer> writes = new ArrayDeque<>();
+        private ByteBuffer readBuffer = ByteBuffer.allocate(4096);
+        private boolean connected;
+        private boolean closed;
+        private long lastUsedNanos = System.nanoTime();
+
+        private Connection(EventLoop loop, InetSocketAddress address) throws IOException {
+            this.loop = loop;
+            this.address = address;
+            this.channel = SocketChannel.open();
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                connected = channel.connect(address);
+                key = channel.register(loop.selector, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, this);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        private void enqueue(Request request) {
+            lastUsedNanos = System.nanoTime();
+            inFlight.add(request);
+            writes.add(ByteBuffer.wrap(request.payload));
+            if (connected) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    close(e);
+                }
+            }
+        }
+
+        private void finishConnect() throws IOException {
+            if (channel.finishConnect()) {
+                connected = true;
+                key.interestOps(SelectionKey.OP_READ);
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            while (!writes.isEmpty()) {
+                ByteBuffer buffer = writes.peek();
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                writes.poll();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+
+        private void read() throws IOException {
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                close(new IOException("Connection to " + address + " closed by peer"));
+                return;
+            }
+
+            readBuffer.flip();
+            while (readBuffer.hasRemaining()) {
+                int start = readBuffer.position();
+                Object reply = parse(readBuffer);
+                if (reply == INCOMPLETE) {
+                    readBuffer.position(start);
+                    break;
+                }
+                Request request = inFlight.poll();
+                if (request == null) {
+                    throw new IllegalStateException("Unsolicited reply from " + address);
+                }
+                if (reply instanceof RespException) {
+                    request.future.completeExceptionally((RespException) reply);
+                } else {
+                    request.future.complete(reply);
+                }
+            }
+            readBuffer.compact();
+
+            // A reply larger than the buffer: grow it so the next read can complete it
+            if (!readBuffer.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(readBuffer.capacity() * 2);
+                readBuffer.flip();
+                larger.put(readBuffer);
+                readBuffer = larger;
+            }
+            lastUsedNanos = System.nanoTime();
+        }
+
+        private void close(Exception cause) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Failed to close connection to {}", address, e);
+            }
+
+            List<Connection> pool = loop.pools.get(address);
+            if (pool != null) {
+                pool.remove(this);
+                if (pool.isEmpty()) {
+                    loop.pools.remove(address);
+                }
+            }
+            loop.connectionCount--;
+
+            Request request;
+            while ((request = inFlight.poll()) != null) {
+                request.future.completeExceptionally(cause != null ? cause
+                        : new IOException("Connection to " + address + " closed"));
+            }
+        }
+    }
+}
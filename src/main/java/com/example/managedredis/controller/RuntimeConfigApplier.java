@@ -0,0 +1,149 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import io.fabric8.kubernetes.api.model.Pod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes the runtime directives of redis.conf to running nodes with CONFIG SET, so tuning changes such as
+ * maxmemory or the eviction policy take effect without a restart. Each pod is sent a given set of directives
+ * once; a restarted pod reads them from the mounted file but is sent them again, since the kubelet refreshes
+ * ConfigMap volumes with a delay. Failed pushes are retried with their own backoff, since the reconcile that
+ * issued them succeeded and reset the queue's.
+ */
+@Component
+public class RuntimeConfigApplier {
+    private static final Logger log = LoggerFactory.getLogger(RuntimeConfigApplier.class);
+
+    // CONFIG SET accepts several directive/value pairs from Redis 7.0
+    private static final int MULTI_SET_MAJOR_VERSION = 7;
+
+    private final RespClient respClient;
+    private final ReconcileQueue reconcileQueue;
+    private final boolean enabled;
+    // "namespace/name" -> pod UID -> hash of the runtime directives sent to it
+    private final Map<String, Map<String, String>> applied = new ConcurrentHashMap<>();
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+    private final Set<String> retryPending = ConcurrentHashMap.newKeySet();
+    private final long initialBackoff;
+    private final long maxBackoff;
+
+    public RuntimeConfigApplier(RedisConfig redisConfig, RespClient respClient, ReconcileQueue reconcileQueue) {
+        this.respClient = respClient;
+        this.reconcileQueue = reconcileQueue;
+        this.enabled = redisConfig.getTuning().isRuntimeApply();
+        this.initialBackoff = redisConfig.getReconcile().getInitialBackoff();
+        this.maxBackoff = redisConfig.getReconcile().getMaxBackoff();
+    }
+
+    void apply(ManagedRedis redis, RedisConf conf, List<Pod> pods) {
+        if (!enabled) {
+            // Restarted pods still read the directives from the mounted redis.conf
+            return;
+        }
+        String key = ReconcileQueue.keyOf(redis);
+        retryPending.remove(key);
+        String hash = RedisResourceRenderer.sha256(conf.getRuntime().toString());
+        Map<String, String> previous = applied.getOrDefault(key, Map.of());
+        Map<String, String> current = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (Pod pod : pods) {
+            String uid = pod.getMetadata().getUid();
+            String podIP = pod.getStatus() == null ? null : pod.getStatus().getPodIP();
+            if (uid == null || podIP == null || !StatusCalculator.isPodReady(pod)) {
+                continue;
+            }
+            current.put(uid, hash);
+            if (hash.equals(previous.get(uid))) {
+                continue;
+            }
+            InetSocketAddress address = new InetSocketAddress(podIP, Integer.parseInt(RedisConfig.REDIS_PORT));
+            sends.add(CompletableFuture.allOf(configSet(redis, address, conf.getRuntime()).toArray(new CompletableFuture[0]))
+                    .whenComplete((ignored, error) -> {
+                        if (error == null) {
+                            log.debug("Applied runtime configuration to {}", pod.getMetadata().getName());
+                            return;
+                        }
+                        // The map of this pass may not be published yet if the send failed at once, and a
+                        // later pass may already have copied the entry into its own
+                        current.remove(uid, hash);
+                        Map<String, String> sent = applied.get(key);
+                        if (sent != null) {
+                            sent.remove(uid, hash);
+                        }
+                        retry(key, pod, error.getCause() != null ? error.getCause() : error);
+                    }));
+        }
+        if (!sends.isEmpty()) {
+            // The backoff only resets once every node sent to in this pass took the directives
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).thenRun(() -> failures.remove(key));
+        }
+        // Pods that are gone drop out here
+        applied.put(key, current);
+    }
+
+    void forget(String key) {
+        applied.remove(key);
+        failures.remove(key);
+        retryPending.remove(key);
+    }
+
+    /**
+     * Schedules one retry per key however many of its pods failed; only the first failure in a row is logged
+     * at WARN so an unreachable node does not flood the log.
+     */
+    private void retry(String key, Pod pod, Throwable error) {
+        if (!retryPending.add(key)) {
+            return;
+        }
+        int attempts = failures.merge(key, 1, Integer::sum);
+        if (attempts == 1) {
+            log.warn("Failed to apply runtime configuration to {}/{}: {}", pod.getMetadata().getNamespace(),
+                    pod.getMetadata().getName(), error.getMessage());
+        } else {
+            log.debug("Failed to apply runtime configuration to {}/{} ({} attempts): {}",
+                    pod.getMetadata().getNamespace(), pod.getMetadata().getName(), attempts, error.getMessage());
+        }
+        reconcileQueue.addAfter(key, Math.min(initialBackoff << Math.min(attempts - 1, 30), maxBackoff));
+    }
+
+    private List<CompletableFuture<Object>> configSet(ManagedRedis redis, InetSocketAddress address,
+                                                      Map<String, String> directives) {
+        List<CompletableFuture<Object>> replies = new ArrayList<>();
+        if (directives.isEmpty()) {
+            return replies;
+        }
+        if (majorVersion(redis) >= MULTI_SET_MAJOR_VERSION) {
+            List<String> command = new ArrayList<>(List.of("CONFIG", "SET"));
+            directives.forEach((directive, value) -> {
+                command.add(directive);
+                command.add(value);
+            });
+            replies.add(respClient.send(address, command.toArray(new String[0])));
+        } else {
+            // Pipelined on the node's connection
+            directives.forEach((directive, value) -> replies.add(respClient.send(address, "CONFIG", "SET", directive, value)));
+        }
+        return replies;
+    }
+
+    private static int majorVersion(ManagedRedis redis) {
+        String version = redis.getSpec().getVersion();
+        try {
+            return Integer.parseInt(version.substring(0, version.indexOf('.') < 0 ? version.length() : version.indexOf('.')));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
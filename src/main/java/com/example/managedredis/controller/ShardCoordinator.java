@@ -0,0 +1,333 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.ExecutorFactory;
+import com.example.managedredis.config.RedisConfig;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.extended.leaderelection.LeaderCallbacks;
+import io.fabric8.kubernetes.client.extended.leaderelection.LeaderElectionConfigBuilder;
+import io.fabric8.kubernetes.client.extended.leaderelection.resourcelock.LeaseLock;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which ManagedRedis keys this operator instance reconciles.
+ * <ul>
+ *     <li>NONE: every key (single replica).</li>
+ *     <li>LEADER: every key while holding the leader Lease, nothing otherwise.</li>
+ *     <li>SHARDED: each instance renews its own member Lease; keys are assigned to the live members
+ *     with a consistent-hash ring, so a membership change only moves the keys of the member that joined or left.</li>
+ * </ul>
+ * Listeners run whenever ownership may have changed so the caller can requeue the keys it now owns.
+ */
+@Component
+public class ShardCoordinator {
+    private static final Logger log = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    private static final String MEMBER_OF_LABEL = "member-of";
+
+    private final KubernetesClient kubernetesClient;
+    private final RedisConfig.Coordination config;
+    private final String identity;
+    private final ExecutorFactory executorFactory;
+    private final List<Runnable> ownershipListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Observation> observations = new HashMap<>();
+    private volatile boolean leader;
+    private volatile HashRing ring = HashRing.EMPTY;
+    private volatile long lastRenewNanos;
+    private volatile boolean running;
+    private ScheduledExecutorService executor;
+    private SharedIndexInformer<Lease> memberInformer;
+    private CompletableFuture<?> election;
+
+    public ShardCoordinator(KubernetesClient kubernetesClient, RedisConfig redisConfig, ExecutorFactory executorFactory) {
+        this.kubernetesClient = kubernetesClient;
+        this.config = redisConfig.getCoordination();
+        this.identity = resolveIdentity(config);
+        this.executorFactory = executorFactory;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        switch (config.getMode()) {
+            case LEADER:
+                executor = executorFactory.newScheduledPool("leader-election", 1);
+                startElection();
+                break;
+            case SHARDED:
+                executor = executorFactory.newScheduledPool("shard-membership", 1);
+                memberInformer = kubernetesClient.leases()
+                        .inNamespace(config.getLeaseNamespace())
+                        .withLabel(RedisConfig.MANAGED_BY_LABEL, RedisConfig.MANAGED_BY)
+                        .withLabel(MEMBER_OF_LABEL, config.getLeaseName())
+                        .inform();
+                executor.scheduleWithFixedDelay(this::renewMembership, 0, config.getRetryPeriod(), TimeUnit.SECONDS);
+                break;
+            default:
+                break;
+        }
+        log.info("Operator coordination mode {} as {}", config.getMode(), identity);
+    }
+
+    public boolean owns(String key) {
+        switch (config.getMode()) {
+            case LEADER:
+                return leader;
+            case SHARDED:
+                return identity.equals(ring.ownerOf(shardKey(key)));
+            default:
+                return true;
+        }
+    }
+
+    public void addOwnershipListener(Runnable listener) {
+        ownershipListeners.add(listener);
+    }
+
+    public String getIdentity() {
+        return identity;
+    }
+
+    public SortedSet<String> getMembers() {
+        return ring.members;
+    }
+
+    private String shardKey(String key) {
+        if (config.getShardBy() == RedisConfig.Coordination.ShardBy.NAMESPACE) {
+            int slash = key.indexOf('/');
+            return slash < 0 ? key : key.substring(0, slash);
+        }
+        return key;
+    }
+
+    private void startElection() {
+        election = kubernetesClient.leaderElector()
+                .withConfig(new LeaderElectionConfigBuilder()
+                        .withName(config.getLeaseName())
+                        .withLock(new LeaseLock(config.getLeaseNamespace(), config.getLeaseName(), identity))
+                        .withLeaseDuration(Duration.ofSeconds(config.getLeaseDuration()))
+                        .withRenewDeadline(Duration.ofSeconds(config.getRenewDeadline()))
+                        .withRetryPeriod(Duration.ofSeconds(config.getRetryPeriod()))
+                        .withReleaseOnCancel(true)
+                        .withLeaderCallbacks(new LeaderCallbacks(
+                                () -> setLeader(true),
+                                () -> setLeader(false),
+                                newLeader -> log.info("Current operator leader: {}", newLeader)))
+                        .build())
+                .build()
+                .start();
+
+        // The elector returns after losing the lease; stand for election again
+        election.whenComplete((result, error) -> {
+            setLeader(false);
+            if (running) {
+                executor.schedule(this::startElection, config.getRetryPeriod(), TimeUnit.SECONDS);
+            }
+        });
+    }
+
+    private void setLeader(boolean leader) {
+        if (this.leader != leader) {
+            this.leader = leader;
+            log.info("{} leadership of {}", leader ? "Acquired" : "Lost", config.getLeaseName());
+            notifyListeners();
+        }
+    }
+
+    private void renewMembership() {
+        try {
+            // Plain create/replace against the cached copy (one write per renewal, no reads)
+            String leaseName = memberLeaseName();
+            Lease current = memberInformer.getStore().getByKey(config.getLeaseNamespace() + "/" + leaseName);
+            if (current == null) {
+                kubernetesClient.leases()
+                        .inNamespace(config.getLeaseNamespace())
+                        .resource(new LeaseBuilder()
+                                .withNewMetadata()
+                                    .withName(leaseName)
+                                    .addToLabels(RedisConfig.MANAGED_BY_LABEL, RedisConfig.MANAGED_BY)
+                                    .addToLabels(MEMBER_OF_LABEL, config.getLeaseName())
+                                .endMetadata()
+                                .withNewSpec()
+                                    .withHolderIdentity(identity)
+                                    .withLeaseDurationSeconds((int) config.getLeaseDuration())
+                                    .withRenewTime(ZonedDateTime.now())
+                                .endSpec()
+                                .build())
+                        .create();
+            } else {
+                kubernetesClient.leases()
+                        .inNamespace(config.getLeaseNamespace())
+                        .resource(new LeaseBuilder(current)
+                                .editSpec()
+                                    .withHolderIdentity(identity)
+                                    .withLeaseDurationSeconds((int) config.getLeaseDuration())
+                                    .withRenewTime(ZonedDateTime.now())
+                                .endSpec()
+                                .build())
+                        .replace();
+            }
+            lastRenewNanos = System.nanoTime();
+        } catch (Exception e) {
+            log.warn("Failed to renew membership lease for {}: {}", identity, e.getMessage());
+        }
+
+        try {
+            updateRing();
+        } catch (Exception e) {
+            log.error("Failed to update shard membership", e);
+        }
+    }
+
+    private String memberLeaseName() {
+        return config.getLeaseName() + "-" + identity;
+    }
+
+    private void updateRing() {
+        long now = System.nanoTime();
+        long leaseDuration = TimeUnit.SECONDS.toNanos(config.getLeaseDuration());
+
+        // Liveness is judged by when this instance observed a renewal, not by the remote clock
+        SortedSet<String> live = new TreeSet<>();
+        Map<String, Observation> seen = new HashMap<>();
+        for (Lease lease : memberInformer.getStore().list()) {
+            String holder = lease.getSpec() == null ? null : lease.getSpec().getHolderIdentity();
+            if (holder == null || holder.equals(identity)) {
+                continue;
+            }
+            ZonedDateTime renewTime = lease.getSpec().getRenewTime();
+            Observation previous = observations.get(holder);
+            Observation current = previous != null && Objects.equals(previous.renewTime, renewTime)
+                    ? previous : new Observation(renewTime, now);
+            seen.put(holder, current);
+            if (now - current.observedAtNanos < leaseDuration) {
+                live.add(holder);
+            }
+        }
+        observations.clear();
+        observations.putAll(seen);
+
+        // Without a recent renewal of our own lease the others will take over our keys
+        if (lastRenewNanos != 0 && now - lastRenewNanos < leaseDuration) {
+            live.add(identity);
+        }
+
+        if (!live.equals(ring.members)) {
+            log.info("Shard members changed: {} -> {}", ring.members, live);
+            ring = new HashRing(live, config.getVirtualNodes());
+            notifyListeners();
+        }
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : ownershipListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                log.error("Ownership listener failed", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (election != null) {
+            election.cancel(true);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (memberInformer != null) {
+            memberInformer.close();
+            try {
+                // Leave immediately instead of waiting for the lease to expire
+                kubernetesClient.leases()
+                        .inNamespace(config.getLeaseNamespace())
+                        .withName(memberLeaseName())
+                        .delete();
+            } catch (Exception e) {
+                log.warn("Failed to delete membership lease for {}", identity, e);
+            }
+        }
+    }
+
+    private static String resolveIdentity(RedisConfig.Coordination config) {
+        if (config.getIdentity() != null && !config.getIdentity().isEmpty()) {
+            return config.getIdentity();
+        }
+        String hostname = System.getenv("HOSTNAME");
+        return hostname != null && !hostname.isEmpty() ? hostname : UUID.randomUUID().toString();
+    }
+
+    private static class Observation {
+        private final ZonedDateTime renewTime;
+        private final long observedAtNanos;
+
+        private Observation(ZonedDateTime renewTime, long observedAtNanos) {
+            this.renewTime = renewTime;
+            this.observedAtNanos = observedAtNanos;
+        }
+    }
+
+    static class HashRing {
+        static final HashRing EMPTY = new HashRing(new TreeSet<>(), 0);
+
+        private final SortedSet<String> members;
+        private final TreeMap<Long, String> ring = new TreeMap<>();
+
+        HashRing(SortedSet<String> members, int virtualNodes) {
+            this.members = members;
+            for (String member : members) {
+                for (int i = 0; i < virtualNodes; i++) {
+                    ring.put(hash(member + "#" + i), member);
+                }
+            }
+        }
+
+        String ownerOf(String key) {
+            if (ring.isEmpty()) {
+                return null;
+            }
+            Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+            return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+        }
+
+        private static long hash(String value) {
+            try {
+                byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+                long hash = 0;
+                for (int i = 0; i < 8; i++) {
+                    hash = (hash << 8) | (digest[i] & 0xff);
+                }
+                return hash;
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
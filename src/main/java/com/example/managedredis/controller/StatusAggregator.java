@@ -0,0 +1,197 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.ExecutorFactory;
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisStatus;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces status changes per ManagedRedis. The first change for a resource opens a window; changes
+ * submitted within it replace the pending status (last writer wins, so phase, endpoints and nodes
+ * all come from the latest computation) and one merge patch is written when it closes.
+ * Writes for a resource never overlap, so they reach the API server in submission order.
+ */
+@Component
+public class StatusAggregator {
+    private static final Logger log = LoggerFactory.getLogger(StatusAggregator.class);
+
+    /**
+     * Called after a status patch was sent, with the resource as cached before the write.
+     */
+    public interface WriteListener {
+        void onWritten(ManagedRedis previous, ManagedRedisStatus written);
+    }
+
+    private final StatusWriter statusWriter;
+    private final SharedIndexInformer<ManagedRedis> informer;
+    private final ReconcileQueue reconcileQueue;
+    private final OperatorMetrics metrics;
+    private final long windowMillis;
+    private final ScheduledExecutorService flushExecutor;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+    private volatile WriteListener listener = (previous, written) -> {
+    };
+
+    public StatusAggregator(RedisConfig redisConfig, StatusWriter statusWriter,
+                            SharedIndexInformer<ManagedRedis> informer, ReconcileQueue reconcileQueue,
+                            ExecutorFactory executorFactory, OperatorMetrics metrics) {
+        this.statusWriter = statusWriter;
+        this.informer = informer;
+        this.reconcileQueue = reconcileQueue;
+        this.metrics = metrics;
+        this.windowMillis = redisConfig.getStatus().getWindow();
+        this.flushExecutor = executorFactory.newScheduledPool("status-flush", redisConfig.getStatus().getFlushThreads());
+        metrics.gauge("managedredis.status.pending", "ManagedRedis resources with a status write pending",
+                this, StatusAggregator::pendingCount);
+    }
+
+    public void setListener(WriteListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Queues the status for a write at the end of the resource's current window.
+     */
+    public void submit(String key, ManagedRedisStatus status) {
+        Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+        synchronized (slot) {
+            if (slot.pending != null) {
+                metrics.statusWrite("coalesced");
+            }
+            slot.pending = status;
+            if (slot.scheduled) {
+                return;
+            }
+            slot.scheduled = true;
+        }
+        try {
+            flushExecutor.schedule(() -> flush(key, slot), windowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the next instance recomputes the status
+        }
+    }
+
+    /**
+     * The status as it will be once pending changes are written: the pending status if there is one, then
+     * one being written or written but not yet seen by the informer, otherwise the cached one.
+     */
+    public ManagedRedisStatus latest(ManagedRedis redis) {
+        Slot slot = slots.get(ReconcileQueue.keyOf(redis));
+        if (slot != null) {
+            synchronized (slot) {
+                if (slot.pending != null) {
+                    return slot.pending;
+                }
+                if (slot.inFlight != null) {
+                    if (slot.writtenOver == null
+                            || slot.writtenOver.equals(redis.getMetadata().getResourceVersion())) {
+                        return slot.inFlight;
+                    }
+                    // The cache has moved past the version the patch was written over
+                    slot.inFlight = null;
+                    slot.writtenOver = null;
+                }
+            }
+        }
+        return redis.getStatus();
+    }
+
+    public void forget(String key) {
+        slots.remove(key);
+    }
+
+    private void flush(String key, Slot slot) {
+        // Held across the write, so a window that closes while the previous write is in flight waits for it
+        synchronized (slot.writeLock) {
+            ManagedRedisStatus status;
+            synchronized (slot) {
+                status = slot.pending;
+                slot.pending = null;
+                slot.scheduled = false;
+                // Stays visible to latest() while the patch is sent
+                slot.inFlight = status;
+                slot.writtenOver = null;
+            }
+            if (status == null) {
+                return;
+            }
+
+            ManagedRedis current = informer.getStore().getByKey(key);
+            if (current == null) {
+                log.debug("ManagedRedis {} deleted before its status was written", key);
+                clearInFlight(slot, status);
+                return;
+            }
+            try {
+                if (statusWriter.write(current, status)) {
+                    String version = current.getMetadata().getResourceVersion();
+                    if (version == null) {
+                        clearInFlight(slot, status);
+                    } else {
+                        synchronized (slot) {
+                            if (slot.inFlight == status) {
+                                // Until the informer delivers a newer version, its cached status predates the patch
+                                slot.writtenOver = version;
+                            }
+                        }
+                    }
+                    listener.onWritten(current, status);
+                } else {
+                    clearInFlight(slot, status);
+                }
+            } catch (RuntimeException e) {
+                clearInFlight(slot, status);
+                // The reconciler recomputes the status from the caches on retry
+                log.error("Failed to write status for {}", key, e);
+                metrics.statusWriteRetried();
+                reconcileQueue.addRateLimited(key);
+            }
+        }
+    }
+
+    private int pendingCount() {
+        int count = 0;
+        for (Slot slot : slots.values()) {
+            synchronized (slot) {
+                if (slot.pending != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdownNow();
+    }
+
+    private static void clearInFlight(Slot slot, ManagedRedisStatus status) {
+        synchronized (slot) {
+            if (slot.inFlight == status) {
+                slot.inFlight = null;
+                slot.writtenOver = null;
+            }
+        }
+    }
+
+    private static final class Slot {
+        private final Object writeLock = new Object();
+        private ManagedRedisStatus pending;
+        private boolean scheduled;
+        // Last status taken for a write, and the resourceVersion it was written over once sent
+        private ManagedRedisStatus inFlight;
+        private String writtenOver;
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisStatus;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Computes the desired ManagedRedisStatus from cached StatefulSet and Pod state. Pure function, no API calls.
+ */
+final class StatusCalculator {
+
+    private StatusCalculator() {
+    }
+
+    static ManagedRedisStatus calculate(ManagedRedis redis, StatefulSet statefulSet, List<Pod> pods, String phase) {
+        return calculate(redis, statefulSet, pods, phase, Collections.emptyMap(), Long.MAX_VALUE);
+    }
+
+    /**
+     * Same as above, with the latest RESP probe per pod name refining each node's status and metrics.
+     */
+    static ManagedRedisStatus calculate(ManagedRedis redis, StatefulSet statefulSet, List<Pod> pods, String phase,
+                                        Map<String, NodeProbe> probes, long maxReplicationLag) {
+        return calculate(redis, statefulSet == null ? Collections.emptyList() : Collections.singletonList(statefulSet),
+                pods, phase, probes, maxReplicationLag, null);
+    }
+
+    /**
+     * Same as above for every StatefulSet of the ManagedRedis. In cluster mode the shards are the layout last
+     * read from the nodes, and the cluster is only Running once all hash slots are assigned.
+     */
+    static ManagedRedisStatus calculate(ManagedRedis redis, List<StatefulSet> statefulSets, List<Pod> pods,
+                                        String phase, Map<String, NodeProbe> probes, long maxReplicationLag,
+                                        List<ManagedRedisStatus.Shard> shards) {
+        String primary = redis.getStatus() == null ? null : redis.getStatus().getCurrentPrimary();
+        return calculate(redis, statefulSets, pods, phase, probes, maxReplicationLag, shards, primary);
+    }
+
+    /**
+     * Same as above with the pod that is primary outside cluster mode (null for pod 0), which moves on failover.
+     */
+    static ManagedRedisStatus calculate(ManagedRedis redis, List<StatefulSet> statefulSets, List<Pod> pods,
+                                        String phase, Map<String, NodeProbe> probes, long maxReplicationLag,
+                                        List<ManagedRedisStatus.Shard> shards, String primary) {
+        String namespace = redis.getMetadata().getNamespace();
+        String name = redis.getMetadata().getName();
+        int replicas = redis.getSpec().getReplicas();
+        boolean clusterMode = RedisResourceRenderer.isClusterMode(redis);
+
+        List<String> expected = new ArrayList<>();
+        if (clusterMode) {
+            for (int shard = 0; shard < redis.getSpec().getSize(); shard++) {
+                expected.add(RedisResourceRenderer.shardName(name, shard));
+            }
+        } else {
+            expected.add(name);
+        }
+
+        // Check StatefulSet status
+        Map<String, StatefulSet> statefulSetsByName = new HashMap<>();
+        for (StatefulSet statefulSet : statefulSets) {
+            statefulSetsByName.put(statefulSet.getMetadata().getName(), statefulSet);
+        }
+        Boolean ready = null;
+        for (String statefulSetName : expected) {
+            StatefulSet statefulSet = statefulSetsByName.get(statefulSetName);
+            StatefulSetStatus status = statefulSet == null ? null : statefulSet.getStatus();
+            if (status == null) {
+                ready = null;
+                break;
+            }
+            // Pods are created one by one, so compare against the desired count
+            Integer readyReplicas = status.getReadyReplicas();
+            ready = (ready == null || ready) && readyReplicas != null && readyReplicas >= replicas;
+        }
+        if (ready != null) {
+            if (ready && (!clusterMode || assignedSlots(shards) == RedisClusterManager.SLOTS)) {
+                phase = "Running";
+            } else if ("Running".equals(phase)) {
+                phase = "Creating";
+            }
+        }
+
+        ManagedRedisStatus status = new ManagedRedisStatus();
+        status.setPhase(phase);
+        if (redis.getStatus() != null) {
+            // Carried over until the reconciler applies a newer spec
+            status.setObservedGeneration(redis.getStatus().getObservedGeneration());
+            status.setSpecHash(redis.getStatus().getSpecHash());
+            status.setLastFailoverTime(redis.getStatus().getLastFailoverTime());
+            status.setLastFailoverMillis(redis.getStatus().getLastFailoverMillis());
+            status.setUpgrade(redis.getStatus().getUpgrade());
+        }
+
+        // Endpoints
+        if (clusterMode) {
+            // Any node serves as a seed; cluster clients discover the shards from it
+            status.setPrimaryEndpoint(String.format("%s.%s.svc:%s", name, namespace, RedisConfig.REDIS_PORT));
+            status.setShards(shards);
+        } else {
+            status.setCurrentPrimary(primary != null ? primary : name + "-0");
+            status.setPrimaryEndpoint(String.format("%s-primary.%s.svc:%s", name, namespace, RedisConfig.REDIS_PORT));
+            if (replicas > 1) {
+                status.setReaderEndpoint(String.format("%s-reader.%s.svc:%s", name, namespace, RedisConfig.REDIS_PORT));
+            }
+        }
+
+        // Node status, primary first (per shard in cluster mode, including shards being retired)
+        Map<String, Pod> podsByName = new HashMap<>();
+        for (Pod pod : pods) {
+            podsByName.put(pod.getMetadata().getName(), pod);
+        }
+
+        List<ManagedRedisStatus.Node> nodes = new ArrayList<>();
+        if (clusterMode) {
+            Set<Integer> shardIndexes = new TreeSet<>();
+            for (int shard = 0; shard < redis.getSpec().getSize(); shard++) {
+                shardIndexes.add(shard);
+            }
+            for (StatefulSet statefulSet : statefulSets) {
+                String shard = statefulSet.getMetadata().getLabels().get(RedisConfig.SHARD_LABEL);
+                if (shard != null) {
+                    shardIndexes.add(Integer.parseInt(shard));
+                }
+            }
+            for (int shard : shardIndexes) {
+                addNodes(nodes, namespace, RedisResourceRenderer.shardName(name, shard), replicas, podsByName, probes,
+                        maxReplicationLag, null);
+            }
+        } else {
+            addNodes(nodes, namespace, name, replicas, podsByName, probes, maxReplicationLag,
+                    status.getCurrentPrimary());
+        }
+        status.setNodes(nodes);
+
+        return status;
+    }
+
+    /**
+     * Adds the nodes of one StatefulSet. Without a primaryName the primary is the node that reports itself
+     * as master (cluster failover can promote any node of a shard), falling back to pod 0.
+     */
+    private static void addNodes(List<ManagedRedisStatus.Node> nodes, String namespace, String statefulSetName,
+                                 int replicas, Map<String, Pod> podsByName, Map<String, NodeProbe> probes,
+                                 long maxReplicationLag, String primary) {
+        String primaryName = primary != null ? primary : statefulSetName + "-0";
+        if (primary == null) {
+            for (int i = 0; i < replicas; i++) {
+                NodeProbe probe = probes.get(statefulSetName + "-" + i);
+                if (probe != null && probe.isReachable() && probe.isPrimary()) {
+                    primaryName = statefulSetName + "-" + i;
+                    break;
+                }
+            }
+        }
+
+        NodeProbe primaryProbe = probes.get(primaryName);
+        Long primaryOffset = primaryProbe != null && primaryProbe.isPrimary() ? primaryProbe.getReplicationOffset() : null;
+
+        for (int i = 0; i < replicas; i++) {
+            String podName = statefulSetName + "-" + i;
+            Pod pod = podsByName.get(podName);
+            if (pod != null) {
+                ManagedRedisStatus.Node node = new ManagedRedisStatus.Node();
+                node.setName(podName);
+                node.setRole(podName.equals(primaryName) ? RedisConfig.PRIMARY_ROLE : RedisConfig.REPLICA_ROLE);
+                node.setStatus(isPodReady(pod) ? "Ready" : "NotReady");
+                node.setEndpoint(String.format("%s.%s.pod:%s", podName, namespace, RedisConfig.REDIS_PORT));
+                applyProbe(node, probes.get(podName), primaryOffset, maxReplicationLag);
+                nodes.add(node);
+            }
+        }
+    }
+
+    private static int assignedSlots(List<ManagedRedisStatus.Shard> shards) {
+        int assigned = 0;
+        if (shards != null) {
+            for (ManagedRedisStatus.Shard shard : shards) {
+                assigned += shard.getSlotCount() == null ? 0 : shard.getSlotCount();
+            }
+        }
+        return assigned;
+    }
+
+    private static void applyProbe(ManagedRedisStatus.Node node, NodeProbe probe, Long primaryOffset,
+                                   long maxReplicationLag) {
+        if (probe == null || !"Ready".equals(node.getStatus())) {
+            return;
+        }
+        if (!probe.isReachable()) {
+            node.setStatus("Unreachable");
+            return;
+        }
+
+        node.setLatencyMillis(probe.getLatencyMillis());
+        node.setReplicationOffset(probe.getReplicationOffset());
+        node.setConnectedReplicas(probe.getConnectedReplicas());
+        node.setLinkStatus(probe.getLinkStatus());
+        if (RedisConfig.PRIMARY_ROLE.equals(node.getRole())) {
+            return;
+        }
+
+        // The pod is ready, but a replica can still be cut off from or far behind the primary
+        if (primaryOffset != null && probe.getReplicationOffset() != null) {
+            node.setReplicationLag(Math.max(0, primaryOffset - probe.getReplicationOffset()));
+        }
+        if (!"up".equals(probe.getLinkStatus())) {
+            node.setStatus("LinkDown");
+        } else if (node.getReplicationLag() != null && node.getReplicationLag() > maxReplicationLag) {
+            node.setStatus("Lagging");
+        }
+    }
+
+    /**
+     * Node name, role and status only: what decides whether a status refresh is worth a write.
+     */
+    static List<String> classify(List<ManagedRedisStatus.Node> nodes) {
+        List<String> classification = new ArrayList<>();
+        if (nodes != null) {
+            for (ManagedRedisStatus.Node node : nodes) {
+                classification.add(node.getName() + "/" + node.getRole() + "/" + node.getStatus());
+            }
+        }
+        return classification;
+    }
+
+    static boolean isPodReady(Pod pod) {
+        if (pod.getStatus() == null || pod.getStatus().getConditions() == null) {
+            return false;
+        }
+
+        return pod.getStatus().getConditions().stream()
+                .filter(condition -> "Ready".equals(condition.getType()))
+                .findFirst()
+                .map(condition -> "True".equals(condition.getStatus()))
+                .orElse(false);
+    }
+}
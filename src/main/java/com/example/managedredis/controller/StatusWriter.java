@@ -0,0 +1,102 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisStatus;
+import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.base.ResourceDefinitionContext;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Persists ManagedRedis status as a JSON merge patch on the /status subresource.
+ * Only fields that differ from the cached status are sent (removed fields as null), and no
+ * resourceVersion is included, so concurrent spec changes never cause a 409 on a status write.
+ */
+@Component
+public class StatusWriter {
+    private static final Logger log = LoggerFactory.getLogger(StatusWriter.class);
+
+    private static final ResourceDefinitionContext CONTEXT = ResourceDefinitionContext.fromResourceType(ManagedRedis.class);
+
+    private final KubernetesClient kubernetesClient;
+    private final OperatorMetrics metrics;
+
+    public StatusWriter(KubernetesClient kubernetesClient, OperatorMetrics metrics) {
+        this.kubernetesClient = kubernetesClient;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns true if a patch was sent, false if the status was already up to date or the resource is gone.
+     */
+    public boolean write(ManagedRedis current, ManagedRedisStatus desired) {
+        Map<String, Object> patch = diff(current.getStatus(), desired);
+        if (patch.isEmpty()) {
+            metrics.statusWrite("unchanged");
+            return false;
+        }
+
+        String namespace = current.getMetadata().getNamespace();
+        String name = current.getMetadata().getName();
+
+        GenericKubernetesResource resource = new GenericKubernetesResource();
+        resource.setApiVersion(HasMetadata.getApiVersion(ManagedRedis.class));
+        resource.setKind(HasMetadata.getKind(ManagedRedis.class));
+        resource.setMetadata(new ObjectMetaBuilder()
+                .withName(name)
+                .withNamespace(namespace)
+                .build());
+        resource.setAdditionalProperty("status", patch);
+
+        try {
+            kubernetesClient.genericKubernetesResources(CONTEXT)
+                    .inNamespace(namespace)
+                    .resource(resource)
+                    .patchStatus();
+            metrics.statusWrite("patched");
+            return true;
+        } catch (KubernetesClientException e) {
+            if (e.getCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                log.warn("ManagedRedis {}/{} not found during status update", namespace, name);
+                metrics.statusWrite("notfound");
+                return false;
+            }
+            // Retried through the work queue's per-key backoff
+            metrics.statusWrite("error");
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> diff(ManagedRedisStatus current, ManagedRedisStatus desired) {
+        Map<String, Object> currentFields = current == null
+                ? Collections.emptyMap() : Serialization.jsonMapper().convertValue(current, Map.class);
+        Map<String, Object> desiredFields = Serialization.jsonMapper().convertValue(desired, Map.class);
+
+        Set<String> keys = new HashSet<>(currentFields.keySet());
+        keys.addAll(desiredFields.keySet());
+
+        Map<String, Object> patch = new LinkedHashMap<>();
+        for (String key : keys) {
+            Object value = desiredFields.get(key);
+            if (!Objects.equals(currentFields.get(key), value)) {
+                patch.put(key, value);
+            }
+        }
+        return patch;
+    }
+}
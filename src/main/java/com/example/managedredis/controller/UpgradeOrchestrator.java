@@ -0,0 +1,391 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisStatus;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolls a new pod template (a version bump, a restart-only redis.conf change) through a Primary-Replica
+ * cluster (spec.size 0) one pod at a time with the StatefulSet partition, replicas first. The new template
+ * is applied with every pod held back; the partition is then lowered one ordinal at a time once every pod
+ * above it runs the new revision, is ready and has caught up with the primary. When the primary's turn
+ * comes it is first switched over to an upgraded replica, so it restarts as a replica and clients never
+ * reach a primary with a cold dataset. Progress is read from the cached StatefulSet and pods, so a rollout
+ * carries on across operator restarts. Cluster mode keeps the plain rolling update.
+ */
+@Component
+public class UpgradeOrchestrator {
+    private static final Logger log = LoggerFactory.getLogger(UpgradeOrchestrator.class);
+
+    static final String ROLLING_REPLICAS = "RollingReplicas";
+    static final String SWITCHING_OVER = "SwitchingOver";
+    static final String ROLLING_PRIMARY = "RollingPrimary";
+    static final String COMPLETE = "Complete";
+
+    private static final String REVISION_LABEL = "controller-revision-hash";
+
+    private final RedisConfig.Upgrade config;
+    private final ManagedResourceCache resourceCache;
+    private final RedisNodeProber prober;
+    private final FailoverController failoverController;
+    private final ReconcileQueue reconcileQueue;
+    // Rollouts by "namespace/name", kept after completion for the status
+    private final Map<String, Rollout> rollouts = new ConcurrentHashMap<>();
+
+    public UpgradeOrchestrator(RedisConfig redisConfig, ManagedResourceCache resourceCache, RedisNodeProber prober,
+                               FailoverController failoverController, ReconcileQueue reconcileQueue) {
+        this.config = redisConfig.getUpgrade();
+        this.resourceCache = resourceCache;
+        this.prober = prober;
+        this.failoverController = failoverController;
+        this.reconcileQueue = reconcileQueue;
+    }
+
+    /**
+     * The StatefulSet to apply for desired: desired itself, or a copy whose partition holds back the pods
+     * that have not had their turn yet. Starts a switchover when the primary is next.
+     */
+    StatefulSet plan(ManagedRedis redis, StatefulSet desired, StatefulSet live) {
+        String key = ReconcileQueue.keyOf(redis);
+        int replicas = redis.getSpec().getReplicas();
+        if (RedisResourceRenderer.isClusterMode(redis) || live == null || replicas < 2) {
+            // Nothing to roll yet, or no replica to hand the primary role to
+            rollouts.remove(key);
+            return desired;
+        }
+
+        String template = templateHash(desired);
+        if (!template.equals(templateHash(live))) {
+            Rollout rollout = rollouts.compute(key, (k, current) -> current != null && current.template.equals(template)
+                    && !COMPLETE.equals(current.phase) ? current
+                    : new Rollout(template, version(live), redis.getSpec().getVersion(), Instant.now()));
+            if (rollout.partition == null) {
+                log.info("Rolling a new pod template out to {} ({} -> {}), replicas first", key,
+                        rollout.fromVersion, rollout.toVersion);
+            }
+            rollout.update(ROLLING_REPLICAS, 0, replicas, "Holding every pod back for a replica-first rollout");
+            return withPartition(desired, replicas);
+        }
+
+        int partition = Math.min(partition(live), replicas);
+        StatefulSetStatus status = live.getStatus();
+        if (status == null || status.getObservedGeneration() == null
+                || status.getObservedGeneration() < live.getMetadata().getGeneration()) {
+            // The StatefulSet controller has not seen the last change yet
+            return withPartition(desired, partition);
+        }
+        String updateRevision = status.getUpdateRevision();
+        if (updateRevision == null || updateRevision.equals(status.getCurrentRevision())) {
+            finish(key, redis);
+            return desired;
+        }
+
+        String name = redis.getMetadata().getName();
+        Rollout rollout = rollouts.computeIfAbsent(key, k -> Rollout.resume(template, redis));
+        String primary = failoverController.currentPrimary(redis);
+        Map<String, Pod> pods = new HashMap<>();
+        for (Pod pod : resourceCache.getPods(redis.getMetadata().getNamespace(), name)) {
+            pods.put(pod.getMetadata().getName(), pod);
+        }
+        Map<String, NodeProbe> probes = probe(pods);
+        int updated = 0;
+        for (Pod pod : pods.values()) {
+            if (updateRevision.equals(pod.getMetadata().getLabels().get(REVISION_LABEL))) {
+                updated++;
+            }
+        }
+
+        // Every pod that has had its turn must be back in service before the next one goes
+        for (int ordinal = partition; ordinal < replicas; ordinal++) {
+            String podName = name + "-" + ordinal;
+            String waiting = waitingFor(podName, pods.get(podName), updateRevision, podName.equals(primary),
+                    probes.get(podName), probes.get(primary));
+            if (waiting != null) {
+                rollout.update(phase(rollout, podName), updated, partition, waiting);
+                reconcileQueue.addAfter(key, config.getCheckInterval());
+                return withPartition(desired, partition);
+            }
+        }
+        if (partition == 0) {
+            // The StatefulSet controller records the new revision as current next
+            return desired;
+        }
+
+        String next = name + "-" + (partition - 1);
+        if (next.equals(primary)) {
+            String target = switchoverTarget(name, partition, replicas, primary, pods, probes);
+            if (target == null) {
+                rollout.update(SWITCHING_OVER, updated, partition, "Waiting for a replica in sync with " + primary);
+                reconcileQueue.addAfter(key, config.getCheckInterval());
+                return withPartition(desired, partition);
+            }
+            rollout.update(SWITCHING_OVER, updated, partition, "Switching the primary over to " + target);
+            // Once the switchover is done, primary restarts as a replica
+            rollout.oldPrimary = primary;
+            switchover(key, redis, rollout, target);
+            return withPartition(desired, partition);
+        }
+
+        log.info("Rolling {} of {} ({} of {} pods upgraded)", next, key, updated, replicas);
+        rollout.update(phase(rollout, next), updated, partition - 1, "Restarting " + next);
+        return withPartition(desired, partition - 1);
+    }
+
+    /**
+     * Rollout progress for the status, or null if none has run since the operator started.
+     */
+    ManagedRedisStatus.Upgrade getUpgrade(String key) {
+        Rollout rollout = rollouts.get(key);
+        return rollout == null ? null : rollout.toStatus();
+    }
+
+    boolean isRollingOut(String key) {
+        Rollout rollout = rollouts.get(key);
+        return rollout != null && !COMPLETE.equals(rollout.phase);
+    }
+
+    public void forget(String key) {
+        rollouts.remove(key);
+    }
+
+    private void finish(String key, ManagedRedis redis) {
+        Rollout rollout = rollouts.get(key);
+        if (rollout != null && !COMPLETE.equals(rollout.phase)) {
+            int replicas = redis.getSpec().getReplicas();
+            rollout.completionTime = Instant.now();
+            rollout.update(COMPLETE, replicas, 0, "All " + replicas + " pods run the new template");
+            log.info("Rolled the new pod template out to {} ({} -> {})", key, rollout.fromVersion, rollout.toVersion);
+        }
+    }
+
+    private void switchover(String key, ManagedRedis redis, Rollout rollout, String target) {
+        CompletableFuture<Boolean> switched;
+        try {
+            switched = failoverController.switchover(redis, target);
+        } catch (RuntimeException e) {
+            // Shutting down
+            return;
+        }
+        switched.whenComplete((done, error) -> {
+            if (error == null && done) {
+                FailoverController.Promotion promotion = failoverController.getPromotion(key);
+                if (promotion != null && promotion.isPlanned()) {
+                    rollout.switchoverMillis = promotion.getMillis();
+                }
+                return;
+            }
+            if (error != null) {
+                log.warn("Switchover of {} for the rollout failed, retrying: {}", key,
+                        error.getCause() != null ? error.getCause().getMessage() : error.getMessage());
+            }
+            // A failover or switchover was already running; look again once it is over
+            reconcileQueue.addAfter(key, config.getCheckInterval());
+        });
+    }
+
+    /**
+     * Why the rollout cannot move past podName yet, or null if it can.
+     */
+    private String waitingFor(String podName, Pod pod, String updateRevision, boolean isPrimary,
+                              NodeProbe probe, NodeProbe primaryProbe) {
+        if (pod == null || pod.getMetadata().getDeletionTimestamp() != null) {
+            return "Waiting for " + podName + " to be recreated";
+        }
+        if (!updateRevision.equals(pod.getMetadata().getLabels().get(REVISION_LABEL))) {
+            return "Waiting for " + podName + " to restart with the new template";
+        }
+        if (!StatusCalculator.isPodReady(pod) || probe == null || !probe.isReachable()) {
+            return "Waiting for " + podName + " to become ready";
+        }
+        if (isPrimary) {
+            return probe.isPrimary() ? null : "Waiting for " + podName + " to act as primary";
+        }
+        if (primaryProbe == null || !primaryProbe.isReachable() || !primaryProbe.isPrimary()) {
+            return "Waiting for the primary to answer";
+        }
+        if (probe.isPrimary() || !"up".equals(probe.getLinkStatus())) {
+            return "Waiting for " + podName + " to sync from the primary";
+        }
+        long lag = lag(probe, primaryProbe);
+        if (lag > config.getMaxReplicationLag()) {
+            return "Waiting for " + podName + " to catch up (" + lag + " bytes behind)";
+        }
+        return null;
+    }
+
+    /**
+     * The replica to hand the primary role to: an upgraded one if any, since pods at or above the
+     * partition have already been checked to be in sync, otherwise (the primary is the highest ordinal,
+     * so nothing has been upgraded) the in-sync replica furthest along.
+     */
+    private String switchoverTarget(String name, int partition, int replicas, String primary, Map<String, Pod> pods,
+                                    Map<String, NodeProbe> probes) {
+        NodeProbe primaryProbe = probes.get(primary);
+        if (primaryProbe == null || !primaryProbe.isReachable() || !primaryProbe.isPrimary()) {
+            return null;
+        }
+        for (int from : new int[]{partition, 0}) {
+            String best = null;
+            long bestLag = Long.MAX_VALUE;
+            for (int ordinal = from; ordinal < replicas; ordinal++) {
+                String podName = name + "-" + ordinal;
+                Pod pod = pods.get(podName);
+                NodeProbe probe = probes.get(podName);
+                if (podName.equals(primary) || pod == null || !StatusCalculator.isPodReady(pod) || probe == null
+                        || !probe.isReachable() || probe.isPrimary() || !"up".equals(probe.getLinkStatus())) {
+                    continue;
+                }
+                long lag = lag(probe, primaryProbe);
+                if (lag <= config.getMaxReplicationLag() && lag < bestLag) {
+                    best = podName;
+                    bestLag = lag;
+                }
+            }
+            if (best != null) {
+                return best;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fresh probes of every ready pod; the health monitor's may predate a restart.
+     */
+    private Map<String, NodeProbe> probe(Map<String, Pod> pods) {
+        Map<String, CompletableFuture<NodeProbe>> pending = new HashMap<>();
+        pods.forEach((podName, pod) -> {
+            String podIP = pod.getStatus() == null ? null : pod.getStatus().getPodIP();
+            if (podIP != null && StatusCalculator.isPodReady(pod)) {
+                pending.put(podName, prober.probe(podIP));
+            }
+        });
+        Map<String, NodeProbe> probes = new HashMap<>();
+        // Bounded by the RESP timeout; the prober never completes exceptionally
+        pending.forEach((podName, probe) -> probes.put(podName, probe.join()));
+        return probes;
+    }
+
+    private static String phase(Rollout rollout, String podName) {
+        return podName.equals(rollout.oldPrimary) ? ROLLING_PRIMARY : ROLLING_REPLICAS;
+    }
+
+    private static long lag(NodeProbe replica, NodeProbe primary) {
+        if (replica.getReplicationOffset() == null || primary.getReplicationOffset() == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, primary.getReplicationOffset() - replica.getReplicationOffset());
+    }
+
+    private static StatefulSet withPartition(StatefulSet desired, int partition) {
+        if (partition == 0) {
+            return desired;
+        }
+        // A copy: the rendered StatefulSet is memoized and shared
+        return new StatefulSetBuilder(desired)
+                .editSpec()
+                    .editUpdateStrategy()
+                        .editRollingUpdate()
+                            .withPartition(partition)
+                        .endRollingUpdate()
+                    .endUpdateStrategy()
+                .endSpec()
+                .build();
+    }
+
+    private static int partition(StatefulSet statefulSet) {
+        if (statefulSet.getSpec().getUpdateStrategy() == null
+                || statefulSet.getSpec().getUpdateStrategy().getRollingUpdate() == null
+                || statefulSet.getSpec().getUpdateStrategy().getRollingUpdate().getPartition() == null) {
+            return 0;
+        }
+        return statefulSet.getSpec().getUpdateStrategy().getRollingUpdate().getPartition();
+    }
+
+    private static String templateHash(StatefulSet statefulSet) {
+        Map<String, String> annotations = statefulSet.getMetadata().getAnnotations();
+        return annotations == null ? "" : annotations.getOrDefault(RedisResourceRenderer.TEMPLATE_HASH_ANNOTATION, "");
+    }
+
+    /**
+     * The Redis version a StatefulSet's pod template runs, from the image tag.
+     */
+    private static String version(StatefulSet statefulSet) {
+        for (Container container : statefulSet.getSpec().getTemplate().getSpec().getContainers()) {
+            if ("redis".equals(container.getName()) && container.getImage() != null) {
+                return container.getImage().substring(container.getImage().lastIndexOf(':') + 1);
+            }
+        }
+        return null;
+    }
+
+    private static final class Rollout {
+        private final String template;
+        private final String fromVersion;
+        private final String toVersion;
+        private final Instant startTime;
+        private volatile Instant completionTime;
+        private volatile String phase;
+        private volatile Integer updatedNodes;
+        private volatile Integer partition;
+        private volatile String message;
+        private volatile Long switchoverMillis;
+        // The pod that was primary before the switchover
+        private volatile String oldPrimary;
+
+        private Rollout(String template, String fromVersion, String toVersion, Instant startTime) {
+            this.template = template;
+            this.fromVersion = fromVersion;
+            this.toVersion = toVersion;
+            this.startTime = startTime;
+        }
+
+        /**
+         * A rollout found in progress after an operator restart, continuing the one recorded in status.
+         */
+        private static Rollout resume(String template, ManagedRedis redis) {
+            ManagedRedisStatus.Upgrade recorded = redis.getStatus() == null ? null : redis.getStatus().getUpgrade();
+            if (recorded == null || COMPLETE.equals(recorded.getPhase()) || recorded.getStartTime() == null) {
+                return new Rollout(template, null, redis.getSpec().getVersion(), Instant.now());
+            }
+            Rollout rollout = new Rollout(template, recorded.getFromVersion(), redis.getSpec().getVersion(),
+                    Instant.parse(recorded.getStartTime()));
+            rollout.switchoverMillis = recorded.getSwitchoverMillis();
+            return rollout;
+        }
+
+        private void update(String phase, int updatedNodes, int partition, String message) {
+            this.phase = phase;
+            this.updatedNodes = updatedNodes;
+            this.partition = partition;
+            this.message = message;
+        }
+
+        private ManagedRedisStatus.Upgrade toStatus() {
+            ManagedRedisStatus.Upgrade upgrade = new ManagedRedisStatus.Upgrade();
+            upgrade.setPhase(phase);
+            upgrade.setFromVersion(fromVersion);
+            upgrade.setToVersion(toVersion);
+            upgrade.setUpdatedNodes(updatedNodes);
+            upgrade.setPartition(partition);
+            upgrade.setStartTime(startTime.toString());
+            upgrade.setCompletionTime(completionTime == null ? null : completionTime.toString());
+            upgrade.setSwitchoverMillis(switchoverMillis);
+            upgrade.setMessage(message);
+            return upgrade;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.managedredis.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ManagedRedisBatchRequest {
+    public enum FailurePolicy {
+        CONTINUE, // run every item and report each result
+        ABORT     // stop starting new items after the first failure; the rest are reported as SKIPPED
+    }
+
+    private List<ManagedRedis> create = new ArrayList<>();
+    private List<String> delete = new ArrayList<>();
+    private FailurePolicy failurePolicy = FailurePolicy.CONTINUE;
+}
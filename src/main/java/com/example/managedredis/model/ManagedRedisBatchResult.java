@@ -0,0 +1,15 @@
+package com.example.managedredis.model;
+
+import lombok.Data;
+
+@Data
+public class ManagedRedisBatchResult {
+    public enum Outcome { SUCCEEDED, EXISTS, FAILED, SKIPPED }
+
+    private int index;
+    private String operation;
+    private String name;
+    private Outcome outcome;
+    private Integer code;
+    private String message;
+}
@@ -0,0 +1,27 @@
+package com.example.managedredis.model;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Data
+public class ManagedRedisOperation {
+    private String id;
+    private String type;
+    private String namespace;
+    private String name;
+    private String status;
+    private Instant createdAt;
+    private Instant completedAt;
+    private String lastError;
+    private List<Stage> stages = new CopyOnWriteArrayList<>();
+
+    @Data
+    public static class Stage {
+        private String name;
+        private Instant completedAt;
+        private long elapsedMillis;
+    }
+}
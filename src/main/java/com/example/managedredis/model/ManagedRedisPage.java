@@ -0,0 +1,14 @@
+package com.example.managedredis.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ManagedRedisPage {
+    private List<ManagedRedis> items = new ArrayList<>();
+    // Pass as "continue" to fetch the next page; null on the last page
+    private String continueToken;
+    private String resourceVersion;
+}
@@ -3,12 +3,16 @@ package com.example.managedredis.model;
 import io.fabric8.kubernetes.api.model.ResourceRequirements;
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 public class ManagedRedisSpec {
     private String version;
     private int replicas;
     private int size;
     private Resources resources;
+    private Autoscaling autoscaling;
+    private Configuration configuration;
 
     @Data
     public static class Resources {
@@ -21,4 +25,49 @@ public class ManagedRedisSpec {
         private String cpu;
         private String memory;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Read replica autoscaling (Primary-Replica mode). Unset targets are not evaluated.
+     */
+    @Data
+    public static class Autoscaling {
+        private int minReplicas;
+        private int maxReplicas;
+        private Long targetOpsPerReplica;
+        private Integer targetCpuUtilization;
+        private Integer memoryHeadroomPercent;
+        private Integer scaleUpCooldownSeconds;
+        private Integer scaleDownCooldownSeconds;
+    }
+
+    /**
+     * redis.conf settings. Unset fields keep the operator defaults (redis.tuning) or the Redis defaults.
+     */
+    @Data
+    public static class Configuration {
+        // Explicit maxmemory (e.g. "1536mb"); derived from resources.limits.memory when unset
+        private String maxmemory;
+        private Integer maxmemoryHeadroomPercent;
+        private String maxmemoryPolicy;
+        private Integer ioThreads;
+        private Boolean ioThreadsDoReads;
+        private Integer tcpBacklog;
+        private Integer tcpKeepalive;
+        private Integer timeout;
+        private Persistence persistence;
+        // Further redis.conf directives; ones the operator manages itself are rejected
+        private Map<String, String> extra;
+    }
+
+    @Data
+    public static class Persistence {
+        private boolean rdb;
+        // "save" schedule, e.g. "3600 1 300 100"
+        private String rdbSchedule;
+        private boolean aof;
+        private String appendfsync;
+        // Size of the data volume; required for rdb or aof, fixed after creation
+        private String storageSize;
+        private String storageClassName;
+    }
+}
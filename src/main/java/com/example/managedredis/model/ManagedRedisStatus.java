@@ -11,7 +11,14 @@ public class ManagedRedisStatus {
     private String phase;
     private String primaryEndpoint;
     private String readerEndpoint;
+    private String currentPrimary;
+    private String lastFailoverTime;
+    private Long lastFailoverMillis;
     private List<Node> nodes;
+    private List<Shard> shards;
+    private Upgrade upgrade;
+    private Long observedGeneration;
+    private String specHash;
 
     @Data
     public static class Node {
@@ -19,5 +26,32 @@ public class ManagedRedisStatus {
         private String role;
         private String status;
         private String endpoint;
+        private Double latencyMillis;
+        private Long replicationOffset;
+        private Long replicationLag;
+        private Integer connectedReplicas;
+        private String linkStatus;
     }
-} 
\ No newline at end of file
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String primary;
+        private String endpoint;
+        private String slots;
+        private Integer slotCount;
+    }
+
+    @Data
+    public static class Upgrade {
+        private String phase;
+        private String fromVersion;
+        private String toVersion;
+        private Integer updatedNodes;
+        private Integer partition;
+        private String startTime;
+        private String completionTime;
+        private Long switchoverMillis;
+        private String message;
+    }
+}
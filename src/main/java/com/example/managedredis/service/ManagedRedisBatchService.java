@@ -0,0 +1,277 @@
+package com.example.managedredis.service;
+
+import com.example.managedredis.config.ExecutorFactory;
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisBatchRequest;
+import com.example.managedredis.model.ManagedRedisBatchResult;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public interface ManagedRedisBatchService {
+    /**
+     * Validates the request and claims the idempotency key (if any). The returned batch does the work
+     * when run; a repeated key within the TTL returns a batch that replays the recorded results.
+     */
+    Batch prepare(ManagedRedisBatchRequest request, String idempotencyKey);
+
+    interface Batch {
+        void run(Consumer<ManagedRedisBatchResult> sink);
+    }
+
+    /**
+     * The Idempotency-Key belongs to a batch that has not finished yet.
+     */
+    class ConflictException extends RuntimeException {
+        public ConflictException(String message) {
+            super(message);
+        }
+    }
+}
+
+@Service
+class ManagedRedisBatchServiceImpl implements ManagedRedisBatchService {
+    private static final Logger log = LoggerFactory.getLogger(ManagedRedisBatchServiceImpl.class);
+
+    private static final String CREATE = "create";
+    private static final String DELETE = "delete";
+
+    private final ManagedRedisService managedRedisService;
+    private final RedisConfig.Batch config;
+    private final ExecutorService executor;
+    private final Map<String, IdempotencyRecord> idempotencyRecords = new ConcurrentHashMap<>();
+
+    public ManagedRedisBatchServiceImpl(ManagedRedisService managedRedisService, RedisConfig redisConfig,
+                                        ExecutorFactory executorFactory) {
+        this.managedRedisService = managedRedisService;
+        this.config = redisConfig.getBatch();
+        this.executor = executorFactory.newTaskExecutor("batch", config.getConcurrency());
+    }
+
+    @Override
+    public Batch prepare(ManagedRedisBatchRequest request, String idempotencyKey) {
+        if (request.getCreate() == null || request.getDelete() == null) {
+            throw new IllegalArgumentException("Batch request create and delete must be lists, not null");
+        }
+        int size = request.getCreate().size() + request.getDelete().size();
+        if (size == 0) {
+            throw new IllegalArgumentException("Batch request has no items");
+        }
+        if (size > config.getMaxItems()) {
+            throw new IllegalArgumentException("Batch request has " + size + " items, the limit is " + config.getMaxItems());
+        }
+        for (ManagedRedis redis : request.getCreate()) {
+            if (redis.getMetadata() == null || redis.getMetadata().getName() == null) {
+                throw new IllegalArgumentException("Every created ManagedRedis needs metadata.name");
+            }
+        }
+
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            return sink -> execute(request, sink);
+        }
+
+        evictExpired();
+        String fingerprint = fingerprint(request);
+        IdempotencyRecord record = new IdempotencyRecord(fingerprint, ttlFromNow());
+        IdempotencyRecord existing = idempotencyRecords.putIfAbsent(idempotencyKey, record);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw new IllegalArgumentException("Idempotency-Key was already used with a different request");
+            }
+            if (existing.results == null) {
+                throw new ConflictException("A batch with this Idempotency-Key is still running");
+            }
+            return sink -> existing.results.forEach(sink);
+        }
+
+        return sink -> {
+            try {
+                record.complete(execute(request, sink), ttlFromNow());
+            } catch (RuntimeException e) {
+                // Let the caller retry with the same key
+                idempotencyRecords.remove(idempotencyKey, record);
+                throw e;
+            }
+        };
+    }
+
+    private List<ManagedRedisBatchResult> execute(ManagedRedisBatchRequest request, Consumer<ManagedRedisBatchResult> sink) {
+        List<Callable<ManagedRedisBatchResult>> tasks = new ArrayList<>();
+        List<ManagedRedisBatchResult> skipped = new ArrayList<>();
+        int index = 0;
+        for (ManagedRedis redis : request.getCreate()) {
+            int itemIndex = index++;
+            tasks.add(() -> create(itemIndex, redis));
+            skipped.add(result(itemIndex, CREATE, redis.getMetadata().getName()));
+        }
+        for (String name : request.getDelete()) {
+            int itemIndex = index++;
+            tasks.add(() -> delete(itemIndex, name));
+            skipped.add(result(itemIndex, DELETE, name));
+        }
+
+        ResultSink results = new ResultSink(sink);
+        CompletionService<ManagedRedisBatchResult> completion = new ExecutorCompletionService<>(executor);
+        boolean abort = false;
+        int inFlight = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            // At most `concurrency` calls of this batch are in flight; report results as they finish
+            while (inFlight >= config.getConcurrency()) {
+                abort |= results.accept(take(completion), request.getFailurePolicy());
+                inFlight--;
+            }
+            if (abort) {
+                ManagedRedisBatchResult result = skipped.get(i);
+                result.setOutcome(ManagedRedisBatchResult.Outcome.SKIPPED);
+                result.setMessage("Skipped after an earlier failure");
+                results.accept(result, request.getFailurePolicy());
+                continue;
+            }
+            completion.submit(tasks.get(i));
+            inFlight++;
+        }
+        while (inFlight > 0) {
+            results.accept(take(completion), request.getFailurePolicy());
+            inFlight--;
+        }
+        return results.recorded;
+    }
+
+    private ManagedRedisBatchResult create(int index, ManagedRedis redis) {
+        ManagedRedisBatchResult result = result(index, CREATE, redis.getMetadata().getName());
+        try {
+            managedRedisService.createManagedRedis(redis);
+            result.setOutcome(ManagedRedisBatchResult.Outcome.SUCCEEDED);
+        } catch (KubernetesClientException e) {
+            // An existing resource with the same name is treated as already done so retries converge
+            result.setOutcome(e.getCode() == HttpURLConnection.HTTP_CONFLICT
+                    ? ManagedRedisBatchResult.Outcome.EXISTS : ManagedRedisBatchResult.Outcome.FAILED);
+            result.setCode(e.getCode());
+            result.setMessage(e.getMessage());
+        }
+        return result;
+    }
+
+    private ManagedRedisBatchResult delete(int index, String name) {
+        ManagedRedisBatchResult result = result(index, DELETE, name);
+        try {
+            managedRedisService.deleteManagedRedis(name);
+            result.setOutcome(ManagedRedisBatchResult.Outcome.SUCCEEDED);
+        } catch (KubernetesClientException e) {
+            result.setOutcome(ManagedRedisBatchResult.Outcome.FAILED);
+            result.setCode(e.getCode());
+            result.setMessage(e.getMessage());
+        }
+        return result;
+    }
+
+    private static ManagedRedisBatchResult result(int index, String operation, String name) {
+        ManagedRedisBatchResult result = new ManagedRedisBatchResult();
+        result.setIndex(index);
+        result.setOperation(operation);
+        result.setName(name);
+        return result;
+    }
+
+    private static ManagedRedisBatchResult take(CompletionService<ManagedRedisBatchResult> completion) {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch results", e);
+        } catch (ExecutionException e) {
+            // create/delete report their own failures; anything else is a bug
+            throw new IllegalStateException("Batch item failed unexpectedly", e.getCause());
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        idempotencyRecords.values().removeIf(record -> now - record.expiresAtNanos > 0);
+    }
+
+    private long ttlFromNow() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getIdempotencyTtl());
+    }
+
+    private static String fingerprint(ManagedRedisBatchRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(Serialization.asJson(request).getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Records every result and forwards it to the client. A client that disconnects does not stop
+     * the batch, so a retry with the same Idempotency-Key can replay the complete outcome.
+     */
+    private static class ResultSink {
+        private final Consumer<ManagedRedisBatchResult> client;
+        private final List<ManagedRedisBatchResult> recorded = new ArrayList<>();
+        private boolean clientGone;
+
+        private ResultSink(Consumer<ManagedRedisBatchResult> client) {
+            this.client = client;
+        }
+
+        private boolean accept(ManagedRedisBatchResult result, ManagedRedisBatchRequest.FailurePolicy policy) {
+            recorded.add(result);
+            if (!clientGone) {
+                try {
+                    client.accept(result);
+                } catch (RuntimeException e) {
+                    log.warn("Batch client disconnected, continuing without streaming results: {}", e.getMessage());
+                    clientGone = true;
+                }
+            }
+            return policy == ManagedRedisBatchRequest.FailurePolicy.ABORT
+                    && result.getOutcome() == ManagedRedisBatchResult.Outcome.FAILED;
+        }
+    }
+
+    private static class IdempotencyRecord {
+        private final String fingerprint;
+        private volatile List<ManagedRedisBatchResult> results;
+        private volatile long expiresAtNanos;
+
+        // Also bounds how long a claimed key whose batch never ran stays blocked
+        private IdempotencyRecord(String fingerprint, long expiresAtNanos) {
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private void complete(List<ManagedRedisBatchResult> results, long expiresAtNanos) {
+            this.expiresAtNanos = expiresAtNanos;
+            this.results = results;
+        }
+    }
+}
@@ -1,15 +1,37 @@
 package com.example.managedredis.service;
 
 import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisOperation;
+import com.example.managedredis.model.ManagedRedisPage;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public interface ManagedRedisService {
     ManagedRedis createManagedRedis(ManagedRedis managedRedis);
+    ManagedRedisOperation createManagedRedisAsync(ManagedRedis managedRedis);
     ManagedRedis getManagedRedis(String name);
+    ManagedRedis getManagedRedis(String name, boolean consistent, String minResourceVersion);
+    List<ManagedRedis> list(String namespace);
+    List<ManagedRedis> list(String namespace, boolean consistent);
+    ManagedRedisPage list(String namespace, String labelSelector, String phase, int limit, String continueToken,
+                          boolean consistent);
+    void stream(String namespace, String labelSelector, String phase, boolean consistent, Consumer<ManagedRedis> consumer);
     void deleteManagedRedis(String name);
 }
 
@@ -17,10 +39,21 @@ public interface ManagedRedisService {
 class ManagedRedisServiceImpl implements ManagedRedisService {
 
     private final KubernetesClient kubernetesClient;
+    private final SharedIndexInformer<ManagedRedis> informer;
+    private final OperationStore operationStore;
+    private final MeterRegistry meterRegistry;
     private static final String DEFAULT_NAMESPACE = "default";
+    private static final long STREAM_PAGE_SIZE = 500;
+    private static final String READS = "managedredis.api.reads";
+    private static final String CACHE = "cache";
+    private static final String API_SERVER = "apiserver";
 
-    public ManagedRedisServiceImpl(KubernetesClient kubernetesClient) {
+    public ManagedRedisServiceImpl(KubernetesClient kubernetesClient, SharedIndexInformer<ManagedRedis> informer,
+                                   OperationStore operationStore, MeterRegistry meterRegistry) {
         this.kubernetesClient = kubernetesClient;
+        this.informer = informer;
+        this.operationStore = operationStore;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -30,8 +63,46 @@ class ManagedRedisServiceImpl implements ManagedRedisService {
                 .create(managedRedis);
     }
 
+    @Override
+    public ManagedRedisOperation createManagedRedisAsync(ManagedRedis managedRedis) {
+        if (managedRedis.getMetadata() == null || managedRedis.getMetadata().getName() == null) {
+            throw new IllegalArgumentException("metadata.name is required");
+        }
+
+        // Tracked before the create so the operator's first stage events can't be missed
+        ManagedRedisOperation operation = operationStore.start("Create", DEFAULT_NAMESPACE,
+                managedRedis.getMetadata().getName());
+        try {
+            createManagedRedis(managedRedis);
+        } catch (RuntimeException e) {
+            operationStore.discard(operation);
+            throw e;
+        }
+        return operation;
+    }
+
     @Override
     public ManagedRedis getManagedRedis(String name) {
+        return getManagedRedis(name, false, null);
+    }
+
+    @Override
+    public ManagedRedis getManagedRedis(String name, boolean consistent, String minResourceVersion) {
+        // Serve from the informer cache unless a consistent read is requested,
+        // the cache is not watching, or the cached copy is older than the caller has already seen
+        if (!consistent && isCacheReady()) {
+            ManagedRedis cached = informer.getStore().getByKey(Cache.namespaceKeyFunc(DEFAULT_NAMESPACE, name));
+            if (minResourceVersion == null) {
+                countRead("get", CACHE);
+                return cached;
+            }
+            if (cached != null && isAtLeast(cached.getMetadata().getResourceVersion(), minResourceVersion)) {
+                countRead("get", CACHE);
+                return cached;
+            }
+        }
+
+        countRead("get", API_SERVER);
         return kubernetesClient.resources(ManagedRedis.class)
                 .inNamespace(DEFAULT_NAMESPACE)
                 .withName(name)
@@ -46,11 +117,179 @@ class ManagedRedisServiceImpl implements ManagedRedisService {
                 .delete();
     }
 
+    @Override
     public List<ManagedRedis> list(String namespace) {
+        return list(namespace, false);
+    }
+
+    @Override
+    public List<ManagedRedis> list(String namespace, boolean consistent) {
         String ns = Optional.ofNullable(namespace).orElse(DEFAULT_NAMESPACE);
+        if (!consistent && isCacheReady()) {
+            countRead("list", CACHE);
+            return informer.getIndexer().byIndex(Cache.NAMESPACE_INDEX, ns);
+        }
+
+        countRead("list", API_SERVER);
         return kubernetesClient.resources(ManagedRedis.class)
                 .inNamespace(ns)
                 .list()
                 .getItems();
     }
-} 
\ No newline at end of file
+
+    @Override
+    public ManagedRedisPage list(String namespace, String labelSelector, String phase, int limit, String continueToken,
+                                 boolean consistent) {
+        String ns = Optional.ofNullable(namespace).orElse(DEFAULT_NAMESPACE);
+        Predicate<ManagedRedis> labels = labelFilter(labelSelector);
+        ManagedRedisPage page = new ManagedRedisPage();
+
+        if (!consistent && isCacheReady()) {
+            countRead("list", CACHE);
+            // Cache pages are ordered by name; the continue token is the last name returned
+            String after = continueToken == null || continueToken.isEmpty() ? null : decodeContinue(continueToken);
+            List<ManagedRedis> matching = new ArrayList<>();
+            for (ManagedRedis redis : informer.getIndexer().byIndex(Cache.NAMESPACE_INDEX, ns)) {
+                if ((after == null || redis.getMetadata().getName().compareTo(after) > 0)
+                        && labels.test(redis) && phaseMatches(redis, phase)) {
+                    matching.add(redis);
+                }
+            }
+            matching.sort(Comparator.comparing(redis -> redis.getMetadata().getName()));
+
+            if (matching.size() > limit) {
+                matching = matching.subList(0, limit);
+                page.setContinueToken(encodeContinue(matching.get(limit - 1).getMetadata().getName()));
+            }
+            page.setItems(new ArrayList<>(matching));
+            page.setResourceVersion(informer.lastSyncResourceVersion());
+            return page;
+        }
+
+        countRead("list", API_SERVER);
+        // The label selector and paging are evaluated by the API server; phase is filtered per page,
+        // so a page can hold fewer than limit items while a continue token is still returned
+        KubernetesResourceList<ManagedRedis> result = kubernetesClient.resources(ManagedRedis.class)
+                .inNamespace(ns)
+                .list(new ListOptionsBuilder()
+                        .withLimit((long) limit)
+                        .withContinue(continueToken)
+                        .withLabelSelector(labelSelector)
+                        .build());
+        for (ManagedRedis redis : result.getItems()) {
+            if (phaseMatches(redis, phase)) {
+                page.getItems().add(redis);
+            }
+        }
+        String next = result.getMetadata().getContinue();
+        page.setContinueToken(next == null || next.isEmpty() ? null : next);
+        page.setResourceVersion(result.getMetadata().getResourceVersion());
+        return page;
+    }
+
+    @Override
+    public void stream(String namespace, String labelSelector, String phase, boolean consistent,
+                       Consumer<ManagedRedis> consumer) {
+        String ns = Optional.ofNullable(namespace).orElse(DEFAULT_NAMESPACE);
+        Predicate<ManagedRedis> labels = labelFilter(labelSelector);
+
+        if (!consistent && isCacheReady()) {
+            countRead("stream", CACHE);
+            for (ManagedRedis redis : informer.getIndexer().byIndex(Cache.NAMESPACE_INDEX, ns)) {
+                if (labels.test(redis) && phaseMatches(redis, phase)) {
+                    consumer.accept(redis);
+                }
+            }
+            return;
+        }
+
+        countRead("stream", API_SERVER);
+        // Walk the API server in chunks so only one chunk is held in memory at a time
+        String continueToken = null;
+        do {
+            KubernetesResourceList<ManagedRedis> result = kubernetesClient.resources(ManagedRedis.class)
+                    .inNamespace(ns)
+                    .list(new ListOptionsBuilder()
+                            .withLimit(STREAM_PAGE_SIZE)
+                            .withContinue(continueToken)
+                            .withLabelSelector(labelSelector)
+                            .build());
+            for (ManagedRedis redis : result.getItems()) {
+                if (phaseMatches(redis, phase)) {
+                    consumer.accept(redis);
+                }
+            }
+            continueToken = result.getMetadata().getContinue();
+        } while (continueToken != null && !continueToken.isEmpty());
+    }
+
+    private void countRead(String operation, String source) {
+        meterRegistry.counter(READS, "operation", operation, "source", source).increment();
+    }
+
+    private boolean isCacheReady() {
+        return informer.hasSynced() && informer.isWatching();
+    }
+
+    private static boolean phaseMatches(ManagedRedis redis, String phase) {
+        return phase == null || phase.isEmpty()
+                || (redis.getStatus() != null && phase.equalsIgnoreCase(redis.getStatus().getPhase()));
+    }
+
+    /**
+     * Equality-based label selector as accepted by the API server: "a=b", "a==b", "a!=b", "a" and "!a",
+     * comma separated. Set-based selectors are rejected rather than silently ignored.
+     */
+    static Predicate<ManagedRedis> labelFilter(String selector) {
+        Predicate<ManagedRedis> filter = redis -> true;
+        if (selector == null || selector.trim().isEmpty()) {
+            return filter;
+        }
+
+        for (String term : selector.split(",")) {
+            String requirement = term.trim();
+            if (requirement.contains("(") || requirement.contains(" ")) {
+                throw new IllegalArgumentException("Unsupported label selector: " + selector);
+            }
+
+            Predicate<Map<String, String>> match;
+            if (requirement.contains("!=")) {
+                String[] parts = requirement.split("!=", 2);
+                match = labels -> !Objects.equals(labels.get(parts[0]), parts[1]);
+            } else if (requirement.contains("=")) {
+                String[] parts = requirement.split("==?", 2);
+                match = labels -> Objects.equals(labels.get(parts[0]), parts[1]);
+            } else if (requirement.startsWith("!")) {
+                String key = requirement.substring(1);
+                match = labels -> !labels.containsKey(key);
+            } else {
+                match = labels -> labels.containsKey(requirement);
+            }
+
+            filter = filter.and(redis -> match.test(
+                    Optional.ofNullable(redis.getMetadata().getLabels()).orElse(Map.of())));
+        }
+        return filter;
+    }
+
+    private static String encodeContinue(String name) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeContinue(String token) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continue token", e);
+        }
+    }
+
+    private static boolean isAtLeast(String resourceVersion, String minResourceVersion) {
+        try {
+            return Long.parseLong(resourceVersion) >= Long.parseLong(minResourceVersion);
+        } catch (NumberFormatException e) {
+            // resourceVersion is opaque; fall back to the API server when it can't be compared
+            return false;
+        }
+    }
+}
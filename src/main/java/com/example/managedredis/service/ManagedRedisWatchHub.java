@@ -0,0 +1,316 @@
+package com.example.managedredis.service;
+
+import com.example.managedredis.config.ExecutorFactory;
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans out ManagedRedis changes from the shared informer to SSE subscribers, so any number of
+ * clients share one API server watch. Publishing never blocks the informer thread: each subscriber
+ * has a bounded buffer drained on a sender pool, and a subscriber whose buffer is full is evicted.
+ * Recent events are kept so a client can resume from the last resourceVersion it saw.
+ */
+@Component
+public class ManagedRedisWatchHub {
+    private static final Logger log = LoggerFactory.getLogger(ManagedRedisWatchHub.class);
+
+    static final String ADDED = "ADDED";
+    static final String MODIFIED = "MODIFIED";
+    static final String DELETED = "DELETED";
+    static final String ERROR = "ERROR";
+
+    private final SharedIndexInformer<ManagedRedis> informer;
+    private final RedisConfig.Watch config;
+    private final ExecutorFactory executorFactory;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<WatchEvent> history = new ArrayDeque<>();
+    private final Object lock = new Object();
+    // Events at or below this resourceVersion can no longer be replayed
+    private long horizon;
+    private long initialVersion;
+    private ExecutorService sender;
+    private ScheduledExecutorService heartbeat;
+
+    public ManagedRedisWatchHub(SharedIndexInformer<ManagedRedis> informer, RedisConfig redisConfig,
+                                ExecutorFactory executorFactory) {
+        this.informer = informer;
+        this.config = redisConfig.getWatch();
+        this.executorFactory = executorFactory;
+    }
+
+    @PostConstruct
+    public void start() {
+        sender = executorFactory.newTaskExecutor("watch-sender", 4);
+        heartbeat = executorFactory.newScheduledPool("watch-heartbeat", 1);
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, config.getHeartbeat(), config.getHeartbeat(), TimeUnit.SECONDS);
+
+        synchronized (lock) {
+            horizon = parseResourceVersion(informer.lastSyncResourceVersion());
+            initialVersion = horizon;
+            informer.addEventHandler(new ResourceEventHandler<ManagedRedis>() {
+                @Override
+                public void onAdd(ManagedRedis redis) {
+                    publish(ADDED, redis);
+                }
+
+                @Override
+                public void onUpdate(ManagedRedis oldRedis, ManagedRedis newRedis) {
+                    // Periodic resyncs redeliver unchanged objects
+                    if (!newRedis.getMetadata().getResourceVersion().equals(oldRedis.getMetadata().getResourceVersion())) {
+                        publish(MODIFIED, newRedis);
+                    }
+                }
+
+                @Override
+                public void onDelete(ManagedRedis redis, boolean deletedFinalStateUnknown) {
+                    publish(DELETED, redis);
+                }
+            });
+        }
+    }
+
+    /**
+     * Subscribes to changes in a namespace, optionally for a single name.
+     * Without a resourceVersion the current state is sent first as ADDED events; with one, the events
+     * after it are replayed, or an ERROR event with code 410 is sent if they are no longer available.
+     */
+    public SseEmitter subscribe(String namespace, String name, String resourceVersion) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(config.getTimeout()));
+        Subscriber subscriber = new Subscriber(emitter, namespace, name);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscriber.close(null));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        synchronized (lock) {
+            if (resourceVersion == null || resourceVersion.isEmpty()) {
+                for (ManagedRedis redis : informer.getIndexer().byIndex(Cache.NAMESPACE_INDEX, namespace)) {
+                    if (subscriber.matches(redis)) {
+                        subscriber.pending.add(new WatchEvent(ADDED, redis));
+                    }
+                }
+            } else {
+                long from = parseResourceVersion(resourceVersion);
+                if (from < horizon) {
+                    subscriber.close(new WatchError(410, "resourceVersion " + resourceVersion + " is too old"));
+                    return emitter;
+                }
+                for (WatchEvent event : history) {
+                    if (event.resourceVersion > from && subscriber.matches(event.object)) {
+                        subscriber.pending.add(event);
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void publish(String type, ManagedRedis redis) {
+        WatchEvent event = new WatchEvent(type, redis);
+        List<Subscriber> targets;
+        synchronized (lock) {
+            // Adding the handler replays the existing objects; subscribers get those from the cache instead
+            if (ADDED.equals(type) && event.resourceVersion <= initialVersion) {
+                return;
+            }
+            history.addLast(event);
+            while (history.size() > config.getHistorySize()) {
+                horizon = Math.max(horizon, history.removeFirst().resourceVersion);
+            }
+            targets = new ArrayList<>(subscribers);
+        }
+
+        for (Subscriber subscriber : targets) {
+            if (subscriber.matches(redis)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.schedule();
+        }
+    }
+
+    private static long parseResourceVersion(String resourceVersion) {
+        try {
+            return resourceVersion == null ? 0 : Long.parseLong(resourceVersion);
+        } catch (NumberFormatException e) {
+            // Unknown versions can't be placed in the history; treat them as expired
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close(null);
+        }
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+        if (sender != null) {
+            sender.shutdown();
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final String namespace;
+        private final String name;
+        private final Queue<WatchEvent> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        private volatile WatchError terminal;
+        private volatile boolean closed;
+        private volatile boolean done;
+
+        private Subscriber(SseEmitter emitter, String namespace, String name) {
+            this.emitter = emitter;
+            this.namespace = namespace;
+            this.name = name;
+        }
+
+        private boolean matches(ManagedRedis redis) {
+            return namespace.equals(redis.getMetadata().getNamespace())
+                    && (name == null || name.equals(redis.getMetadata().getName()));
+        }
+
+        private void offer(WatchEvent event) {
+            if (closed) {
+                return;
+            }
+            // The initial state and replay are not counted; only live events can overflow the buffer
+            if (size.incrementAndGet() > config.getBufferSize()) {
+                log.warn("Evicting slow watch subscriber for {}/{}", namespace, name == null ? "*" : name);
+                close(new WatchError(429, "subscriber too slow, resume from the last resourceVersion"));
+                return;
+            }
+            pending.add(event);
+            schedule();
+        }
+
+        private void close(WatchError error) {
+            if (closed) {
+                return;
+            }
+            subscribers.remove(this);
+            pending.clear();
+            terminal = error;
+            closed = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (!done && scheduled.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    emitter.complete();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                WatchEvent event;
+                while (!closed && (event = pending.poll()) != null) {
+                    size.updateAndGet(current -> Math.max(0, current - 1));
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.object.getMetadata().getResourceVersion()))
+                            .name(event.type)
+                            .data(event.object, MediaType.APPLICATION_JSON));
+                }
+                if (closed) {
+                    if (terminal != null) {
+                        emitter.send(SseEmitter.event().name(ERROR).data(terminal, MediaType.APPLICATION_JSON));
+                    }
+                    done = true;
+                    emitter.complete();
+                    return;
+                }
+                if (heartbeatDue) {
+                    heartbeatDue = false;
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                subscribers.remove(this);
+                closed = true;
+                done = true;
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+
+            // Work that arrived while this drain was finishing
+            if (!done && (closed || heartbeatDue || !pending.isEmpty())) {
+                schedule();
+            }
+        }
+    }
+
+    private static class WatchEvent {
+        private final String type;
+        private final ManagedRedis object;
+        private final long resourceVersion;
+
+        private WatchEvent(String type, ManagedRedis object) {
+            this.type = type;
+            this.object = object;
+            this.resourceVersion = parseResourceVersion(object.getMetadata().getResourceVersion());
+        }
+    }
+
+    public static class WatchError {
+        private final int code;
+        private final String message;
+
+        WatchError(int code, String message) {
+            this.code = code;
+            this.message = message;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
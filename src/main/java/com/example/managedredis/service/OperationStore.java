@@ -0,0 +1,177 @@
+package com.example.managedredis.service;
+
+import com.example.managedredis.config.ExecutorFactory;
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.controller.ReconcileStageEvent;
+import com.example.managedredis.model.ManagedRedisOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory store of long-running operations, advanced by the operator's ReconcileStageEvents.
+ * Operations are evicted once they are older than the configured TTL.
+ */
+@Component
+public class OperationStore {
+    private static final Logger log = LoggerFactory.getLogger(OperationStore.class);
+
+    public static final String RUNNING = "Running";
+    public static final String SUCCEEDED = "Succeeded";
+
+    private final RedisConfig.Operations config;
+    private final ExecutorFactory executorFactory;
+    private final Map<String, ManagedRedisOperation> operations = new ConcurrentHashMap<>();
+    // Running operation per "namespace/name"
+    private final Map<String, String> active = new ConcurrentHashMap<>();
+    private final Map<String, List<DeferredResult<ManagedRedisOperation>>> waiters = new ConcurrentHashMap<>();
+    private ScheduledExecutorService evictionExecutor;
+
+    public OperationStore(RedisConfig redisConfig, ExecutorFactory executorFactory) {
+        this.config = redisConfig.getOperations();
+        this.executorFactory = executorFactory;
+    }
+
+    @PostConstruct
+    public void start() {
+        evictionExecutor = executorFactory.newScheduledPool("operation-eviction", 1);
+        evictionExecutor.scheduleWithFixedDelay(this::evictExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Registers an operation before the request is sent, so no stage event can be missed.
+     */
+    public ManagedRedisOperation start(String type, String namespace, String name) {
+        ManagedRedisOperation operation = new ManagedRedisOperation();
+        operation.setId(UUID.randomUUID().toString());
+        operation.setType(type);
+        operation.setNamespace(namespace);
+        operation.setName(name);
+        operation.setStatus(RUNNING);
+        operation.setCreatedAt(Instant.now());
+        operations.put(operation.getId(), operation);
+
+        String previous = active.put(key(namespace, name), operation.getId());
+        if (previous != null) {
+            log.debug("Operation {} for {}/{} superseded by {}", previous, namespace, name, operation.getId());
+        }
+        return operation;
+    }
+
+    /**
+     * Drops an operation whose request was rejected.
+     */
+    public void discard(ManagedRedisOperation operation) {
+        operations.remove(operation.getId());
+        active.remove(key(operation.getNamespace(), operation.getName()), operation.getId());
+    }
+
+    public ManagedRedisOperation get(String id) {
+        return operations.get(id);
+    }
+
+    /**
+     * Completes with the operation once it is done, or with its current state after the timeout.
+     */
+    public DeferredResult<ManagedRedisOperation> await(ManagedRedisOperation operation, long timeoutSeconds) {
+        long timeout = Math.max(0, Math.min(timeoutSeconds, config.getMaxWait()));
+        DeferredResult<ManagedRedisOperation> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(timeout));
+        result.onTimeout(() -> result.setResult(operation));
+        result.onCompletion(() -> removeWaiter(operation.getId(), result));
+
+        waiters.computeIfAbsent(operation.getId(), id -> new CopyOnWriteArrayList<>()).add(result);
+        // The operation may have finished while the waiter was being registered
+        if (!RUNNING.equals(operation.getStatus())) {
+            result.setResult(operation);
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onStage(ReconcileStageEvent event) {
+        String id = active.get(key(event.getNamespace(), event.getName()));
+        ManagedRedisOperation operation = id == null ? null : operations.get(id);
+        if (operation == null) {
+            return;
+        }
+
+        synchronized (operation) {
+            if (event.getStage() == ReconcileStageEvent.Stage.FAILED) {
+                // Reconcile retries with backoff, so a failure is recorded but does not end the operation
+                operation.setLastError(event.getMessage());
+                return;
+            }
+
+            String stage = event.getStage().name();
+            if (operation.getStages().stream().noneMatch(recorded -> recorded.getName().equals(stage))) {
+                ManagedRedisOperation.Stage recorded = new ManagedRedisOperation.Stage();
+                recorded.setName(stage);
+                recorded.setCompletedAt(event.getTimestamp());
+                recorded.setElapsedMillis(Duration.between(operation.getCreatedAt(), event.getTimestamp()).toMillis());
+                operation.getStages().add(recorded);
+            }
+
+            if (event.getStage() == ReconcileStageEvent.Stage.PODS_READY) {
+                operation.setStatus(SUCCEEDED);
+                operation.setCompletedAt(event.getTimestamp());
+                operation.setLastError(null);
+                active.remove(key(operation.getNamespace(), operation.getName()), operation.getId());
+            }
+        }
+
+        if (!RUNNING.equals(operation.getStatus())) {
+            List<DeferredResult<ManagedRedisOperation>> pending = waiters.remove(operation.getId());
+            if (pending != null) {
+                pending.forEach(waiter -> waiter.setResult(operation));
+            }
+        }
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    private void removeWaiter(String id, DeferredResult<ManagedRedisOperation> waiter) {
+        List<DeferredResult<ManagedRedisOperation>> pending = waiters.get(id);
+        if (pending != null) {
+            pending.remove(waiter);
+        }
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minusSeconds(config.getTtl());
+        operations.values().removeIf(operation -> {
+            if (operation.getCreatedAt().isAfter(cutoff)) {
+                return false;
+            }
+            active.remove(key(operation.getNamespace(), operation.getName()), operation.getId());
+            waiters.remove(operation.getId());
+            return true;
+        });
+    }
+
+    private static String key(String namespace, String name) {
+        return namespace + "/" + name;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (evictionExecutor != null) {
+            evictionExecutor.shutdownNow();
+        }
+    }
+}
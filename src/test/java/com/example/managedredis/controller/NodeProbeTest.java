@@ -0,0 +1,135 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import com.example.managedredis.model.ManagedRedis;
+import com.example.managedredis.model.ManagedRedisSpec;
+import com.example.managedredis.model.ManagedRedisStatus;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NodeProbeTest {
+    private static final String PRIMARY_INFO = "# Replication\r\nrole:master\r\nconnected_slaves:2\r\n"
+            + "master_repl_offset:1000000\r\n";
+
+    @Test
+    void parseInfoSkipsSectionHeadersAndBlankLines() {
+        Map<String, String> fields = NodeProbe.parseInfo(
+                "# Replication\r\nrole:slave\r\n\r\nmaster_host:redis-primary\r\nmaster_link_status:up \r\n"
+                        + "# Keyspace\ndb0:keys=1,expires=0\n");
+
+        assertEquals("slave", fields.get("role"));
+        assertEquals("redis-primary", fields.get("master_host"));
+        assertEquals("up", fields.get("master_link_status"));
+        // Only the first colon separates the value
+        assertEquals("keys=1,expires=0", fields.get("db0"));
+        assertEquals(4, fields.size());
+        assertTrue(NodeProbe.parseInfo(null).isEmpty());
+    }
+
+    @Test
+    void probeReadsTheOffsetForItsRole() {
+        NodeProbe primary = NodeProbe.of(1_234_567, PRIMARY_INFO);
+        assertTrue(primary.isReachable());
+        assertTrue(primary.isPrimary());
+        assertEquals(1000000L, primary.getReplicationOffset());
+        assertEquals(2, primary.getConnectedReplicas());
+        assertEquals(1.23, primary.getLatencyMillis());
+
+        NodeProbe replica = NodeProbe.of(0, replicaInfo("up", 999000));
+        assertFalse(replica.isPrimary());
+        assertEquals(999000L, replica.getReplicationOffset());
+        assertNull(replica.getConnectedReplicas());
+        assertEquals("up", replica.getLinkStatus());
+
+        NodeProbe unreachable = NodeProbe.unreachable("Connection refused");
+        assertFalse(unreachable.isReachable());
+        assertEquals("Connection refused", unreachable.getError());
+    }
+
+    @Test
+    void probesClassifyReadyNodes() {
+        ManagedRedis redis = managedRedis(5);
+        Map<String, NodeProbe> probes = new HashMap<>();
+        probes.put("cache-0", NodeProbe.of(0, PRIMARY_INFO));
+        probes.put("cache-1", NodeProbe.of(0, replicaInfo("up", 999000)));
+        probes.put("cache-2", NodeProbe.unreachable("timed out"));
+        probes.put("cache-3", NodeProbe.of(0, replicaInfo("down", 1000000)));
+        probes.put("cache-4", NodeProbe.of(0, replicaInfo("up", 1000000 - 2048)));
+
+        ManagedRedisStatus status = StatusCalculator.calculate(redis, statefulSet(redis), pods(redis), "Running",
+                probes, 1024);
+
+        Map<String, ManagedRedisStatus.Node> nodes = new HashMap<>();
+        status.getNodes().forEach(node -> nodes.put(node.getName(), node));
+        assertEquals("Ready", nodes.get("cache-0").getStatus());
+        assertEquals("Ready", nodes.get("cache-1").getStatus());
+        assertEquals(1000L, nodes.get("cache-1").getReplicationLag());
+        assertEquals("Unreachable", nodes.get("cache-2").getStatus());
+        assertEquals("LinkDown", nodes.get("cache-3").getStatus());
+        assertEquals("Lagging", nodes.get("cache-4").getStatus());
+        assertEquals(2048L, nodes.get("cache-4").getReplicationLag());
+    }
+
+    private static String replicaInfo(String linkStatus, long offset) {
+        return "# Replication\r\nrole:slave\r\nmaster_host:10.0.0.1\r\nmaster_link_status:" + linkStatus
+                + "\r\nslave_repl_offset:" + offset + "\r\n";
+    }
+
+    private static ManagedRedis managedRedis(int replicas) {
+        ManagedRedisSpec spec = new ManagedRedisSpec();
+        spec.setVersion("7.0");
+        spec.setReplicas(replicas);
+        ManagedRedis redis = new ManagedRedis();
+        redis.setMetadata(new ObjectMetaBuilder().withName("cache").withNamespace("test").build());
+        redis.setSpec(spec);
+        return redis;
+    }
+
+    private static StatefulSet statefulSet(ManagedRedis redis) {
+        return new StatefulSetBuilder()
+                .withNewMetadata()
+                    .withName("cache")
+                    .withNamespace("test")
+                .endMetadata()
+                .withNewSpec()
+                    .withReplicas(redis.getSpec().getReplicas())
+                .endSpec()
+                .withNewStatus()
+                    .withReplicas(redis.getSpec().getReplicas())
+                    .withReadyReplicas(redis.getSpec().getReplicas())
+                .endStatus()
+                .build();
+    }
+
+    private static List<Pod> pods(ManagedRedis redis) {
+        List<Pod> pods = new ArrayList<>();
+        for (int i = 0; i < redis.getSpec().getReplicas(); i++) {
+            pods.add(new PodBuilder()
+                    .withNewMetadata()
+                        .withName("cache-" + i)
+                        .withNamespace("test")
+                        .addToLabels(RedisConfig.APP_LABEL, "cache")
+                    .endMetadata()
+                    .withNewStatus()
+                        .withPodIP("10.0.0." + (i + 1))
+                        .addNewCondition().withType("Ready").withStatus("True").endCondition()
+                    .endStatus()
+                    .build());
+        }
+        return pods;
+    }
+}
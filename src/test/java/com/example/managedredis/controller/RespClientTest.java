@@ -0,0 +1,223 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.RedisConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RespClientTest {
+    private RespClient client;
+    private StandInServer server;
+
+    @BeforeEach
+    void setUp() {
+        RedisConfig config = new RedisConfig();
+        config.getResp().setTimeout(300);
+        client = new RespClient(config);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void pipelinedRepliesCompleteInOrder() throws Exception {
+        server = new StandInServer(command -> {
+            if (command.get(1).equals("first")) {
+                // Held back so the later commands are already written to the same connection
+                sleep(100);
+            }
+            return bulk(command.get(1));
+        });
+
+        List<CompletableFuture<Object>> replies = new ArrayList<>();
+        for (String value : List.of("first", "second", "third")) {
+            replies.add(client.send(server.address(), "ECHO", value));
+        }
+
+        assertEquals("first", replies.get(0).get(2, TimeUnit.SECONDS));
+        assertEquals("second", replies.get(1).get(2, TimeUnit.SECONDS));
+        assertEquals("third", replies.get(2).get(2, TimeUnit.SECONDS));
+        assertEquals(1, server.connections.size());
+        assertEquals(1, client.getOpenConnectionCount());
+    }
+
+    @Test
+    void errorReplyCompletesExceptionally() throws Exception {
+        server = new StandInServer(command -> command.get(0).equals("PING")
+                ? "+PONG\r\n" : "-ERR unknown command '" + command.get(0) + "'\r\n");
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> client.send(server.address(), "NOPE").get(2, TimeUnit.SECONDS));
+        assertInstanceOf(RespClient.RespException.class, error.getCause());
+        assertEquals("ERR unknown command 'NOPE'", error.getCause().getMessage());
+
+        // The connection stays usable after an error reply
+        assertEquals("PONG", client.send(server.address(), "PING").get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void stalledServerHitsTheDeadlineAndDropsTheConnection() throws Exception {
+        server = new StandInServer(command -> null);
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> client.send(server.address(), "PING").get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (client.getOpenConnectionCount() > 0 && System.nanoTime() < deadline) {
+            sleep(10);
+        }
+        assertEquals(0, client.getOpenConnectionCount());
+    }
+
+    @Test
+    void replyLargerThanTheReadBuffer() throws Exception {
+        StringBuilder large = new StringBuilder();
+        while (large.length() < 100_000) {
+            large.append("role:master\r\n");
+        }
+        server = new StandInServer(command -> bulk(large.toString()));
+
+        assertEquals(large.toString(), client.send(server.address(), "INFO").get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void nilAndArrayReplies() throws Exception {
+        server = new StandInServer(command -> command.get(0).equals("GET")
+                ? "$-1\r\n" : "*3\r\n:1\r\n$3\r\nfoo\r\n*1\r\n+OK\r\n");
+
+        assertNull(client.send(server.address(), "GET", "missing").get(2, TimeUnit.SECONDS));
+        assertEquals(List.of(1L, "foo", List.of("OK")),
+                client.send(server.address(), "LIST").get(2, TimeUnit.SECONDS));
+    }
+
+    private static String bulk(String value) {
+        return "$" + value.getBytes(StandardCharsets.UTF_8).length + "\r\n" + value + "\r\n";
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Blocking RESP server on a loopback port that answers each command with the handler's raw reply,
+     * or not at all for null.
+     */
+    private static final class StandInServer implements AutoCloseable {
+        private final ServerSocketChannel channel;
+        private final Function<List<String>, String> handler;
+        private final List<SocketChannel> connections = new CopyOnWriteArrayList<>();
+
+        private StandInServer(Function<List<String>, String> handler) throws IOException {
+            this.handler = handler;
+            this.channel = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+            Thread acceptor = new Thread(this::accept, "resp-stand-in");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private InetSocketAddress address() throws IOException {
+            return (InetSocketAddress) channel.getLocalAddress();
+        }
+
+        private void accept() {
+            try {
+                while (true) {
+                    SocketChannel connection = channel.accept();
+                    connections.add(connection);
+                    Thread serving = new Thread(() -> serve(connection), "resp-stand-in-connection");
+                    serving.setDaemon(true);
+                    serving.start();
+                }
+            } catch (IOException e) {
+                // Closed by the test
+            }
+        }
+
+        private void serve(SocketChannel connection) {
+            try (InputStream in = new BufferedInputStream(Channels.newInputStream(connection));
+                 OutputStream out = Channels.newOutputStream(connection)) {
+                while (true) {
+                    List<String> command = readCommand(in);
+                    if (command == null) {
+                        return;
+                    }
+                    String reply = handler.apply(command);
+                    if (reply != null) {
+                        out.write(reply.getBytes(StandardCharsets.UTF_8));
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // Connection dropped by the client
+            }
+        }
+
+        private static List<String> readCommand(InputStream in) throws IOException {
+            String header = readLine(in);
+            if (header == null) {
+                return null;
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<String> command = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(readLine(in).substring(1));
+                byte[] data = in.readNBytes(length + 2);
+                command.add(new String(data, 0, length, StandardCharsets.UTF_8));
+            }
+            return command;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    return line.substring(0, line.length() - 1);
+                }
+                line.append((char) b);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+            for (SocketChannel connection : connections) {
+                connection.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.managedredis.controller;
+
+import com.example.managedredis.config.ExecutorFactory;
+import com.example.managedredis.config.RedisConfig;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.EnableKubernetesMockClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@EnableKubernetesMockClient(crud = true)
+class ShardCoordinatorTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+    static KubernetesClient client;
+
+    private final List<ShardCoordinator> started = new ArrayList<>();
+
+    @AfterEach
+    void stopAll() {
+        started.forEach(ShardCoordinator::stop);
+    }
+
+    @Test
+    void shardedMembersSplitKeysOnTheRing() {
+        ShardCoordinator a = start(RedisConfig.Coordination.Mode.SHARDED, "a");
+        ShardCoordinator b = start(RedisConfig.Coordination.Mode.SHARDED, "b");
+        await(() -> a.getMembers().equals(Set.of("a", "b")) && b.getMembers().equals(Set.of("a", "b")));
+
+        int ownedByA = 0;
+        for (String key : keys(200)) {
+            // Exactly one member owns every key
+            assertNotEquals(a.owns(key), b.owns(key), key);
+            ownedByA += a.owns(key) ? 1 : 0;
+        }
+        assertTrue(ownedByA > 0 && ownedByA < 200, "keys owned by a: " + ownedByA);
+    }
+
+    @Test
+    void keysOfAnExpiredMemberMoveToTheSurvivor() {
+        ShardCoordinator a = start(RedisConfig.Coordination.Mode.SHARDED, "a");
+        await(() -> a.getMembers().equals(Set.of("a")));
+
+        // A member that renewed once and then stopped without deleting its lease, as after a crash
+        client.leases().inNamespace("default").resource(new LeaseBuilder()
+                .withNewMetadata()
+                    .withName("managedredis-operator-c")
+                    .addToLabels(RedisConfig.MANAGED_BY_LABEL, RedisConfig.MANAGED_BY)
+                    .addToLabels("member-of", "managedredis-operator")
+                .endMetadata()
+                .withNewSpec()
+                    .withHolderIdentity("c")
+                    .withLeaseDurationSeconds(2)
+                    .withRenewTime(ZonedDateTime.now())
+                .endSpec()
+                .build()).create();
+        await(() -> a.getMembers().equals(Set.of("a", "c")));
+        assertFalse(keys(200).stream().allMatch(a::owns));
+
+        await(() -> a.getMembers().equals(Set.of("a")));
+        assertTrue(keys(200).stream().allMatch(a::owns));
+    }
+
+    @Test
+    void leadershipMovesWhenTheHolderStops() {
+        ShardCoordinator first = start(RedisConfig.Coordination.Mode.LEADER, "first");
+        await(() -> first.owns("ns/redis"));
+        ShardCoordinator second = start(RedisConfig.Coordination.Mode.LEADER, "second");
+        assertFalse(second.owns("ns/redis"));
+
+        first.stop();
+        await(() -> second.owns("ns/redis"));
+        assertFalse(first.owns("ns/redis"));
+    }
+
+    @Test
+    void addingAMemberOnlyMovesKeysToIt() {
+        ShardCoordinator.HashRing before = new ShardCoordinator.HashRing(new TreeSet<>(Set.of("a", "b", "c")), 100);
+        ShardCoordinator.HashRing after = new ShardCoordinator.HashRing(new TreeSet<>(Set.of("a", "b", "c", "d")), 100);
+
+        int moved = 0;
+        for (String key : keys(1000)) {
+            String owner = after.ownerOf(key);
+            if (!owner.equals(before.ownerOf(key))) {
+                // A key only ever moves to the new member
+                assertEquals("d", owner, key);
+                moved++;
+            }
+        }
+        // Roughly a quarter of the keys
+        assertTrue(moved > 100 && moved < 450, "moved keys: " + moved);
+    }
+
+    private ShardCoordinator start(RedisConfig.Coordination.Mode mode, String identity) {
+        RedisConfig config = new RedisConfig();
+        config.getCoordination().setMode(mode);
+        config.getCoordination().setIdentity(identity);
+        config.getCoordination().setShardBy(RedisConfig.Coordination.ShardBy.RESOURCE);
+        config.getCoordination().setLeaseDuration(4);
+        config.getCoordination().setRenewDeadline(3);
+        config.getCoordination().setRetryPeriod(1);
+        ShardCoordinator coordinator = new ShardCoordinator(client, config, new ExecutorFactory(config));
+        coordinator.start();
+        started.add(coordinator);
+        return coordinator;
+    }
+
+    private static List<String> keys(int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add("ns-" + (i % 7) + "/redis-" + i);
+        }
+        return keys;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within " + TIMEOUT);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}